@@ -12,10 +12,16 @@ public class SecurityConfig {
 
     @Bean
     public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http,
-                                                            @Value("${app.security.permit-paths:/auth/**,/actuator/health,/actuator/info}") String permitPaths) {
+                                                            @Value("${app.security.permit-paths:/auth/**,/actuator/health,/actuator/info}") String permitPaths,
+                                                            @Value("${app.security.deny-paths:}") String denyPaths) {
         http.csrf(csrf -> csrf.disable())
                 .cors(Customizer.withDefaults())
                 .authorizeExchange(reg -> {
+                    // service-to-service endpoints of the routed services, never reachable from outside
+                    for (String p : denyPaths.split(",")) {
+                        String path = p.trim();
+                        if (!path.isEmpty()) reg.pathMatchers(path).denyAll();
+                    }
                     for (String p : permitPaths.split(",")) {
                         String path = p.trim();
                         if (!path.isEmpty()) reg.pathMatchers(path).permitAll();
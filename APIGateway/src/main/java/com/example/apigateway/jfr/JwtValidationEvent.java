@@ -0,0 +1,22 @@
+package com.example.apigateway.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.example.gateway.JwtValidation")
+@Label("JWT Validation")
+@Category({"ERP", "Gateway"})
+@Description("Signature and claims check of one access token")
+@StackTrace(false)
+public class JwtValidationEvent extends Event {
+    @Label("Valid")
+    public boolean valid;
+
+    @Label("Failure")
+    @Description("Exception type when the token was rejected")
+    public String failure;
+}
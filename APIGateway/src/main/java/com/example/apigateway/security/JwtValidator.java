@@ -1,6 +1,7 @@
 package com.example.apigateway.security;
 
 import com.example.apigateway.config.JwtProperties;
+import com.example.apigateway.jfr.JwtValidationEvent;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
@@ -24,6 +25,21 @@ public class JwtValidator {
     }
 
     public JwtPrincipal validate(String token) throws JwtException {
+        JwtValidationEvent event = new JwtValidationEvent();
+        event.begin();
+        try {
+            JwtPrincipal principal = doValidate(token);
+            event.valid = true;
+            return principal;
+        } catch (RuntimeException e) {
+            event.failure = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private JwtPrincipal doValidate(String token) {
         if (token == null || token.isBlank()) {
             throw new JwtException("Empty token");
         }
@@ -28,6 +28,8 @@ public class HeaderAuthFilter extends OncePerRequestFilter {
                     .map(String::trim)
                     .filter(s -> !s.isEmpty())
                     .map(r -> r.startsWith("ROLE_") ? r : "ROLE_" + r)
+                    // only a valid service token grants the service role, never a forwarded header
+                    .filter(r -> !r.equals(ServiceTokenFilter.ROLE))
                     .map(SimpleGrantedAuthority::new)
                     .collect(Collectors.toList());
             Authentication auth = new AbstractAuthenticationToken(authorities) {
@@ -1,7 +1,10 @@
 package org.example.inventoryservice.config;
 
+import org.example.instrumentation.FlightRecordingEndpoint;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
@@ -10,12 +13,29 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfig {
+    /** Flight recordings capture the process environment, so only admins may start or download them. */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, HeaderAuthFilter headerAuthFilter) throws Exception {
-        http.csrf(csrf -> csrf.disable())
-                .authorizeHttpRequests(reg -> reg.anyRequest().permitAll())
+    @Order(1)
+    public SecurityFilterChain flightRecordingSecurityFilterChain(HttpSecurity http, HeaderAuthFilter headerAuthFilter) throws Exception {
+        http.securityMatcher(EndpointRequest.to(FlightRecordingEndpoint.class))
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(reg -> reg.anyRequest().hasRole("ADMIN"))
                 .addFilterBefore(headerAuthFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
+
+    /** Stock reservations and releases are only called by OrderService, never by end users. */
+    @Bean
+    @Order(2)
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, HeaderAuthFilter headerAuthFilter,
+                                                   ServiceTokenFilter serviceTokenFilter) throws Exception {
+        http.csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(reg -> reg
+                        .requestMatchers("/api/products/reservations/**").hasRole("SERVICE")
+                        .anyRequest().permitAll())
+                .addFilterBefore(serviceTokenFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(headerAuthFilter, ServiceTokenFilter.class);
+        return http.build();
+    }
 }
 
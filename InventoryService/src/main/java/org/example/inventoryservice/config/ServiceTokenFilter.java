@@ -0,0 +1,48 @@
+package org.example.inventoryservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Authenticates calls from other services by the shared token in {@value #HEADER}, granting ROLE_SERVICE. The
+ * gateway strips this header, so end users cannot present it. An empty token disables service access.
+ */
+@Component
+public class ServiceTokenFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Service-Token";
+    public static final String ROLE = "ROLE_SERVICE";
+
+    private final byte[] token;
+
+    public ServiceTokenFilter(@Value("${security.service-token:}") String token) {
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String presented = request.getHeader(HEADER);
+        if (presented != null && token.length > 0
+                && MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8))) {
+            AbstractAuthenticationToken auth = new AbstractAuthenticationToken(List.of(new SimpleGrantedAuthority(ROLE))) {
+                @Override public Object getCredentials() { return ""; }
+                @Override public Object getPrincipal() { return "service"; }
+            };
+            auth.setAuthenticated(true);
+            SecurityContextHolder.getContext().setAuthentication(auth);
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -2,8 +2,13 @@ package org.example.inventoryservice.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.inventoryservice.dto.BatchStockReservationRequest;
+import org.example.inventoryservice.dto.BatchStockReservationResponse;
 import org.example.inventoryservice.dto.ProductRequest;
 import org.example.inventoryservice.dto.ProductResponse;
+import org.example.inventoryservice.dto.StockReleaseRequest;
+import org.example.inventoryservice.dto.StockReservationRequest;
+import org.example.inventoryservice.dto.StockReservationResponse;
 import org.example.inventoryservice.service.ProductService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -69,6 +74,24 @@ public class ProductController {
         return productService.decrementStock(id, qty);
     }
 
+    @PostMapping("/reservations")
+    @ResponseStatus(HttpStatus.OK)
+    public StockReservationResponse reserve(@Valid @RequestBody StockReservationRequest request) {
+        return productService.reserveStock(request);
+    }
+
+    @PostMapping("/reservations/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public BatchStockReservationResponse reserveBatch(@Valid @RequestBody BatchStockReservationRequest request) {
+        return productService.reserveStockBatch(request);
+    }
+
+    @PostMapping("/reservations/release")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void release(@Valid @RequestBody StockReleaseRequest request) {
+        productService.releaseStock(request);
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping(value = "/import", consumes = {"multipart/form-data"})
     @ResponseStatus(HttpStatus.CREATED)
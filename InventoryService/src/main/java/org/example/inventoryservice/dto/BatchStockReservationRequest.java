@@ -0,0 +1,17 @@
+package org.example.inventoryservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStockReservationRequest {
+    @NotEmpty(message = "At least one order is required")
+    private List<@Valid StockReservationRequest> orders;
+}
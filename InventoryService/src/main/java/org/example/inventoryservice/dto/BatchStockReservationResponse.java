@@ -0,0 +1,15 @@
+package org.example.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStockReservationResponse {
+    /** One result per requested order, in request order. */
+    private List<BatchStockReservationResult> results;
+}
@@ -0,0 +1,16 @@
+package org.example.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStockReservationResult {
+    private boolean reserved;
+    private List<ReservedItemResponse> items;
+    private String error;
+}
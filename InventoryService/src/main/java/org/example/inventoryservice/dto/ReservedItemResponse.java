@@ -0,0 +1,16 @@
+package org.example.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservedItemResponse {
+    private Long productId;
+    private Integer quantity;
+    private BigDecimal price;
+}
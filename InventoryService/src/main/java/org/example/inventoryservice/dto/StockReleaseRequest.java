@@ -0,0 +1,22 @@
+package org.example.inventoryservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReleaseRequest {
+    /** Order the reservation belonged to; a release is applied at most once per order number. */
+    @NotBlank(message = "Order number is required")
+    private String orderNumber;
+
+    @NotEmpty(message = "At least one item is required")
+    private List<@Valid StockReservationItem> items;
+}
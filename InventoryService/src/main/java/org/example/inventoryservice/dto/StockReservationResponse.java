@@ -0,0 +1,14 @@
+package org.example.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationResponse {
+    private List<ReservedItemResponse> items;
+}
@@ -0,0 +1,27 @@
+package org.example.inventoryservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.example.inventory.StockDecrement")
+@Label("Stock Decrement")
+@Category({"ERP", "Inventory"})
+@Description("Decrement of one product's stock, including the row lookup and update")
+@StackTrace(false)
+public class StockDecrementEvent extends Event {
+    @Label("Product Id")
+    public long productId;
+
+    @Label("Quantity")
+    public int quantity;
+
+    @Label("Remaining Stock")
+    public int remaining;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
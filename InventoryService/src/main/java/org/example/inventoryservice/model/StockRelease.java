@@ -0,0 +1,22 @@
+package org.example.inventoryservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** Marks the order whose reserved stock was given back, so a retried release is not applied twice. */
+@Entity
+@Table(name = "stock_releases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockRelease {
+    @Id
+    private String orderNumber;
+
+    @Column(nullable = false)
+    private LocalDateTime releasedAt;
+}
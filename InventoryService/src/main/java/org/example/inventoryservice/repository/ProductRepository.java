@@ -3,6 +3,9 @@ package org.example.inventoryservice.repository;
 import org.example.inventoryservice.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Pageable;
 import java.util.Optional;
@@ -12,4 +15,13 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Optional<Product> findBySku(String sku);
     Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
+    // Conditional decrement: the row is only touched when enough stock is left, so no read-modify-write race
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQty = p.stockQty - :qty WHERE p.id = :id AND p.stockQty >= :qty")
+    int decrementStockIfAvailable(@Param("id") Long id, @Param("qty") int qty);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQty = p.stockQty + :qty WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("qty") int qty);
+
 }
@@ -0,0 +1,20 @@
+package org.example.inventoryservice.repository;
+
+import org.example.inventoryservice.model.StockRelease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockReleaseRepository extends JpaRepository<StockRelease, String> {
+
+    // 0 when the order was already released; a concurrent duplicate waits on the key and then gets 0 as well
+    @Modifying
+    @Query(value = """
+            INSERT INTO stock_releases (order_number, released_at) VALUES (:orderNumber, now())
+            ON CONFLICT (order_number) DO NOTHING
+            """, nativeQuery = true)
+    int markReleased(@Param("orderNumber") String orderNumber);
+}
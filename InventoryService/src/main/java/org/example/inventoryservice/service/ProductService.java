@@ -2,29 +2,50 @@ package org.example.inventoryservice.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.inventoryservice.dto.BatchStockReservationRequest;
+import org.example.inventoryservice.dto.BatchStockReservationResponse;
+import org.example.inventoryservice.dto.BatchStockReservationResult;
 import org.example.inventoryservice.dto.ProductRequest;
 import org.example.inventoryservice.dto.ProductResponse;
+import org.example.inventoryservice.dto.ReservedItemResponse;
+import org.example.inventoryservice.dto.StockReleaseRequest;
+import org.example.inventoryservice.dto.StockReservationItem;
+import org.example.inventoryservice.dto.StockReservationRequest;
+import org.example.inventoryservice.dto.StockReservationResponse;
+import org.example.inventoryservice.exception.ControllerException;
 import org.example.inventoryservice.exception.DuplicateResourceException;
 import org.example.inventoryservice.exception.ResourceNotFoundException;
 import org.example.inventoryservice.exception.InsufficientStockException;
+import org.example.inventoryservice.jfr.StockDecrementEvent;
 import org.example.inventoryservice.model.Product;
 import org.example.inventoryservice.repository.ProductRepository;
+import org.example.inventoryservice.repository.StockReleaseRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ProductService{
     private final ProductRepository productRepository;
+    private final StockReleaseRepository stockReleaseRepository;
 
     public ProductResponse createProduct(ProductRequest productRequest){
         if(productRepository.findBySku(productRequest.getSku()).isPresent()){
@@ -76,18 +97,150 @@ public class ProductService{
 
     public ProductResponse decrementStock(Long id, int qty) {
         if (qty <= 0) {
-            throw new org.example.inventoryservice.exception.ControllerException(HttpStatus.BAD_REQUEST, "Quantity must be positive");
+            throw new ControllerException(HttpStatus.BAD_REQUEST, "Quantity must be positive");
         }
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product with ID " + id + " not found"));
-        int available = product.getStockQty() == null ? 0 : product.getStockQty();
-        if (available < qty) {
-            throw new InsufficientStockException(id, qty, available);
+        StockDecrementEvent event = new StockDecrementEvent();
+        event.begin();
+        event.productId = id;
+        event.quantity = qty;
+        try {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product with ID " + id + " not found"));
+            int available = product.getStockQty() == null ? 0 : product.getStockQty();
+            event.remaining = available;
+            if (available < qty) {
+                throw new InsufficientStockException(id, qty, available);
+            }
+            product.setStockQty(available - qty);
+            Product updated = productRepository.save(product);
+            event.remaining = updated.getStockQty();
+            event.succeeded = true;
+            log.info("Decremented stock for product {} by {}, new stock {}", id, qty, updated.getStockQty());
+            return mapToProductResponse(updated);
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Reserves every line of a multi-line request in a single transaction. Lines for the same product are merged
+     * and applied in ascending product id order so concurrent reservations always lock rows in the same order.
+     * If any line cannot be satisfied the whole reservation is rolled back.
+     */
+    @Transactional
+    public StockReservationResponse reserveStock(StockReservationRequest request) {
+        Map<Long, Integer> quantities = mergeQuantities(request.getItems());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Long id = entry.getKey();
+            int qty = entry.getValue();
+            if (productRepository.decrementStockIfAvailable(id, qty) == 0) {
+                Product product = productRepository.findById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Product with ID " + id + " not found"));
+                int available = product.getStockQty() == null ? 0 : product.getStockQty();
+                throw new InsufficientStockException(id, qty, available);
+            }
+        }
+
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ReservedItemResponse> reserved = request.getItems().stream()
+                .map(item -> new ReservedItemResponse(item.getProductId(), item.getQuantity(),
+                        products.get(item.getProductId()).getPrice()))
+                .toList();
+        log.info("Reserved stock for {} lines across {} products", reserved.size(), quantities.size());
+        return new StockReservationResponse(reserved);
+    }
+
+    /**
+     * Reserves stock for many orders in one transaction. Each order is all-or-nothing on its own: when one of its
+     * lines cannot be reserved, the lines already taken for that order are given back and the order is reported
+     * as failed, while the other orders of the batch go ahead. Prices are loaded once for the whole batch.
+     */
+    @Transactional
+    public BatchStockReservationResponse reserveStockBatch(BatchStockReservationRequest request) {
+        List<BatchStockReservationResult> results = new ArrayList<>(request.getOrders().size());
+        Set<Long> reservedIds = new HashSet<>();
+        for (StockReservationRequest order : request.getOrders()) {
+            String error = reserveAllOrNothing(order);
+            if (error == null) {
+                order.getItems().forEach(item -> reservedIds.add(item.getProductId()));
+            }
+            results.add(new BatchStockReservationResult(error == null, null, error));
+        }
+
+        Map<Long, Product> products = productRepository.findAllById(reservedIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (int i = 0; i < results.size(); i++) {
+            BatchStockReservationResult result = results.get(i);
+            if (result.isReserved()) {
+                result.setItems(request.getOrders().get(i).getItems().stream()
+                        .map(item -> new ReservedItemResponse(item.getProductId(), item.getQuantity(),
+                                products.get(item.getProductId()).getPrice()))
+                        .toList());
+            }
+        }
+        long failed = results.stream().filter(r -> !r.isReserved()).count();
+        log.info("Batch reservation orders={} failed={} products={}", results.size(), failed, reservedIds.size());
+        return new BatchStockReservationResponse(results);
+    }
+
+    // Returns null when every line was reserved, otherwise why not; nothing stays reserved in that case
+    private String reserveAllOrNothing(StockReservationRequest order) {
+        Map<Long, Integer> quantities;
+        try {
+            quantities = mergeQuantities(order.getItems());
+        } catch (ControllerException e) {
+            return e.getMessage();
+        }
+        Map<Long, Integer> taken = new TreeMap<>();
+        String error = null;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Long id = entry.getKey();
+            int qty = entry.getValue();
+            if (productRepository.decrementStockIfAvailable(id, qty) == 0) {
+                error = productRepository.findById(id)
+                        .map(p -> new InsufficientStockException(id, qty, p.getStockQty() == null ? 0 : p.getStockQty()).getMessage())
+                        .orElse("Product with ID " + id + " not found");
+                break;
+            }
+            taken.put(id, qty);
+        }
+        if (error != null) {
+            taken.forEach(productRepository::incrementStock);
+        }
+        return error;
+    }
+
+    /**
+     * Gives back stock taken by {@link #reserveStock}. Used by OrderService as a compensating action when an
+     * order could not be persisted after its reservation succeeded. OrderService retries failed releases, so a
+     * release for an order number that was already released is ignored.
+     */
+    @Transactional
+    public void releaseStock(StockReleaseRequest request) {
+        Map<Long, Integer> quantities = mergeQuantities(request.getItems());
+        if (stockReleaseRepository.markReleased(request.getOrderNumber()) == 0) {
+            log.info("Stock for order {} already released, repeat ignored", request.getOrderNumber());
+            return;
+        }
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (productRepository.incrementStock(entry.getKey(), entry.getValue()) == 0) {
+                log.warn("Skipped stock release for missing product {} qty {}", entry.getKey(), entry.getValue());
+            }
+        }
+        log.info("Released stock for order {} across {} products", request.getOrderNumber(), quantities.size());
+    }
+
+    // Sorted by product id so concurrent reservations always lock rows in the same order
+    private Map<Long, Integer> mergeQuantities(List<StockReservationItem> items) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockReservationItem item : items) {
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new ControllerException(HttpStatus.BAD_REQUEST, "Quantity must be positive");
+            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
         }
-        product.setStockQty(available - qty);
-        Product updated = productRepository.save(product);
-        log.info("Decremented stock for product {} by {}, new stock {}", id, qty, updated.getStockQty());
-        return mapToProductResponse(updated);
+        return quantities;
     }
 
     public int importProducts(MultipartFile file) {
@@ -0,0 +1,16 @@
+-- Schema as it was managed before migrations were introduced. Existing databases are baselined at version 0
+-- and run this as a no-op.
+
+CREATE TABLE IF NOT EXISTS products (
+    id        bigint PRIMARY KEY,
+    name      varchar(255)   NOT NULL,
+    sku       varchar(255)   NOT NULL,
+    price     numeric(38, 2) NOT NULL,
+    stock_qty integer        NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS customers (
+    id    bigint PRIMARY KEY,
+    name  varchar(255) NOT NULL,
+    email varchar(255) NOT NULL UNIQUE
+);
@@ -0,0 +1,7 @@
+-- One row per order whose reserved stock was given back. OrderService retries releases that failed, so the same
+-- release can arrive more than once; the key makes every repeat a no-op.
+
+CREATE TABLE stock_releases (
+    order_number varchar(255) PRIMARY KEY,
+    released_at  timestamp(6) NOT NULL
+);
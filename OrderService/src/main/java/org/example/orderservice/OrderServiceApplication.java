@@ -1,11 +1,20 @@
 package org.example.orderservice;
 
+import org.example.orderservice.config.EmailListenerProperties;
+import org.example.orderservice.config.IdempotencyProperties;
+import org.example.orderservice.config.InvoiceExportProperties;
+import org.example.orderservice.config.InvoiceRenderProperties;
+import org.example.orderservice.config.OrderPartitionProperties;
+import org.example.orderservice.config.OutboxProperties;
+import org.example.orderservice.config.SalesRollupProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableScheduling
+@EnableConfigurationProperties({OutboxProperties.class, EmailListenerProperties.class, InvoiceRenderProperties.class, InvoiceExportProperties.class, IdempotencyProperties.class, SalesRollupProperties.class, OrderPartitionProperties.class})
 public class OrderServiceApplication {
 
     public static void main(String[] args) {
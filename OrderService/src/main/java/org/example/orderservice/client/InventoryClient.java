@@ -0,0 +1,92 @@
+package org.example.orderservice.client;
+
+import org.example.downstream.DownstreamUnavailableException;
+import org.example.orderservice.dto.BatchStockReservationRequest;
+import org.example.orderservice.dto.BatchStockReservationResponse;
+import org.example.orderservice.dto.OrderItemRequest;
+import org.example.orderservice.dto.StockReleaseRequest;
+import org.example.orderservice.dto.StockReservationRequest;
+import org.example.orderservice.dto.StockReservationResponse;
+import org.example.orderservice.exception.InvalidOrderException;
+import org.example.orderservice.exception.InventoryUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+@Component
+public class InventoryClient {
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+
+    public InventoryClient(RestTemplate restTemplate,
+                           @Value("${inventory.base-url}") String baseUrl) {
+        this.restTemplate = restTemplate;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Reserves stock for all lines in one round trip. InventoryService applies the reservation atomically,
+     * so a failure here means nothing was decremented.
+     */
+    public StockReservationResponse reserveStock(List<OrderItemRequest> items) {
+        String url = baseUrl + "/api/products/reservations";
+        try {
+            ResponseEntity<StockReservationResponse> res =
+                    restTemplate.postForEntity(url, new StockReservationRequest(items), StockReservationResponse.class);
+            StockReservationResponse body = res.getBody();
+            if (!res.getStatusCode().is2xxSuccessful() || body == null || body.getItems() == null
+                    || body.getItems().size() != items.size()) {
+                throw new InvalidOrderException("Could not obtain prices for order items");
+            }
+            return body;
+        } catch (HttpClientErrorException e) {
+            String msg = e.getResponseBodyAsString();
+            throw new InvalidOrderException("Failed to reserve stock: " + msg);
+        } catch (DownstreamUnavailableException | ResourceAccessException | HttpServerErrorException e) {
+            throw new InventoryUnavailableException("Inventory service unavailable: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reserves stock for many orders in one round trip. Each order is reserved all-or-nothing on its own; the
+     * response holds one result per order, in request order.
+     */
+    public BatchStockReservationResponse reserveStockBatch(List<List<OrderItemRequest>> orders) {
+        String url = baseUrl + "/api/products/reservations/batch";
+        BatchStockReservationRequest request = new BatchStockReservationRequest(
+                orders.stream().map(StockReservationRequest::new).toList());
+        try {
+            BatchStockReservationResponse body =
+                    restTemplate.postForObject(url, request, BatchStockReservationResponse.class);
+            if (body == null || body.getResults() == null || body.getResults().size() != orders.size()) {
+                throw new InventoryUnavailableException("Inventory service returned an incomplete batch reservation");
+            }
+            return body;
+        } catch (HttpClientErrorException e) {
+            throw new InvalidOrderException("Failed to reserve stock: " + e.getResponseBodyAsString());
+        } catch (DownstreamUnavailableException | ResourceAccessException | HttpServerErrorException e) {
+            throw new InventoryUnavailableException("Inventory service unavailable: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compensating call for {@link #reserveStock}. Callers go through StockReleaseService, which queues the release
+     * for retry when this throws. InventoryService applies a release once per order number and ignores repeats.
+     */
+    public void releaseStock(String orderNumber, List<OrderItemRequest> items) {
+        String url = baseUrl + "/api/products/reservations/release";
+        try {
+            restTemplate.postForEntity(url, new StockReleaseRequest(orderNumber, items), Void.class);
+        } catch (HttpClientErrorException e) {
+            throw new InvalidOrderException("Failed to release stock: " + e.getResponseBodyAsString());
+        } catch (DownstreamUnavailableException | ResourceAccessException | HttpServerErrorException e) {
+            throw new InventoryUnavailableException("Inventory service unavailable: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.orderservice.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Lets a handler give its own async request a timeout other than {@code spring.mvc.async.request-timeout}. Long
+ * streaming responses such as exports call {@link #setTimeout} before returning their
+ * {@code StreamingResponseBody}, and the timeout is applied when the body starts streaming. Every other async
+ * request keeps the default.
+ */
+@Configuration
+public class AsyncTimeoutConfig implements WebMvcConfigurer {
+    private static final String TIMEOUT_ATTRIBUTE = AsyncTimeoutConfig.class.getName() + ".timeout";
+
+    public static void setTimeout(HttpServletRequest request, Duration timeout) {
+        request.setAttribute(TIMEOUT_ATTRIBUTE, timeout);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            // runs before the async request starts, while its timeout can still be changed
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest asyncRequest
+                        && request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Duration timeout) {
+                    asyncRequest.setTimeout(timeout.toMillis());
+                }
+            }
+        });
+    }
+}
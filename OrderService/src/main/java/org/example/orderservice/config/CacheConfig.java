@@ -0,0 +1,16 @@
+package org.example.orderservice.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Cache provider and limits come from {@code spring.cache.*}, so a deployment can resize the cache or turn it off
+ * with {@code spring.cache.type=none}. The caching advice runs outside the transactional advice: hits never open
+ * a transaction, and evictions happen after the change has committed.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+    public static final String ORDERS = "orders";
+}
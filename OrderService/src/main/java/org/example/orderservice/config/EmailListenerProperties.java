@@ -0,0 +1,24 @@
+package org.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "email.listener")
+@Data
+public class EmailListenerProperties {
+    /** Shard queues orders are hashed over; the same on every node. */
+    private int shards = 8;
+    private int concurrency = 2;
+    private int maxConcurrency = 8;
+    private int prefetch = 250;
+    /** Messages delivered to the listener and acked together. */
+    private int batchSize = 50;
+    /** How long a consumer waits to fill a batch before delivering a partial one. */
+    private Duration receiveTimeout = Duration.ofMillis(200);
+    /** Single-threaded lanes; all events of one order run on the same lane. */
+    private int stripes = 4;
+    /** Recently handled event ids remembered to drop redeliveries. */
+    private int dedupeWindow = 10_000;
+}
@@ -0,0 +1,19 @@
+package org.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "idempotency")
+@Data
+public class IdempotencyProperties {
+    /** How long a completed request's response is replayed for its key. */
+    private Duration retention = Duration.ofHours(24);
+    /** How long a key stays claimed by a request that has not finished, e.g. because its node died. */
+    private Duration inProgressLease = Duration.ofMinutes(2);
+    /** How long a duplicate waits for the original request before answering 409. */
+    private Duration waitTimeout = Duration.ofSeconds(30);
+    /** Completed keys kept in memory in front of the table. */
+    private int localCacheSize = 10_000;
+}
@@ -0,0 +1,18 @@
+package org.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "invoice.export")
+@Data
+public class InvoiceExportProperties {
+    /** Threads rendering missing invoices, shared by all running exports. */
+    private int workers = 4;
+    /** Invoices one export may have in flight; bounds its memory regardless of the date range. */
+    private int window = 16;
+    private int pageSize = 200;
+    /** How long one export response may stream before it is cut off. */
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,16 @@
+package org.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "invoice.render")
+@Data
+public class InvoiceRenderProperties {
+    private int workers = 2;
+    /** Background renders allowed to wait; beyond this new orders are rendered on their first download instead. */
+    private int queueCapacity = 500;
+    /** How long a download waits for a render before answering 503. */
+    private Duration waitTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,13 @@
+package org.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "orders.partitions")
+@Data
+public class OrderPartitionProperties {
+    /** Monthly partitions kept ready beyond the current month. */
+    private int monthsAhead = 3;
+    /** Months of orders kept attached; older partitions are detached. 0 keeps everything. */
+    private int retentionMonths = 0;
+}
@@ -0,0 +1,23 @@
+package org.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "outbox.relay")
+@Data
+public class OutboxProperties {
+    private int minBatchSize = 50;
+    private int maxBatchSize = 1000;
+    private Duration minPollInterval = Duration.ofMillis(50);
+    private Duration maxPollInterval = Duration.ofSeconds(2);
+    /** How long a claimed event stays invisible to other relays before it may be claimed again. */
+    private Duration lease = Duration.ofSeconds(30);
+    private int workers = 4;
+    /** Claimed batches waiting for a worker; the relay stops claiming while this is full. */
+    private int queueCapacity = 8;
+    /** Messages published before waiting for their broker confirms. */
+    private int publishWindow = 500;
+    private Duration confirmTimeout = Duration.ofSeconds(5);
+}
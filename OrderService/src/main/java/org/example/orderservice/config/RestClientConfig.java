@@ -1,14 +1,25 @@
 package org.example.orderservice.config;
 
+import org.example.downstream.DownstreamClients;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class RestClientConfig {
+    public static final String INVENTORY_CLIENT = "inventory";
+    public static final String SERVICE_TOKEN_HEADER = "X-Service-Token";
+
+    /** InventoryService only accepts reservations and releases from callers presenting the shared service token. */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(DownstreamClients downstreamClients,
+                                     @Value("${inventory.service-token}") String serviceToken) {
+        RestTemplate restTemplate = downstreamClients.restTemplate(INVENTORY_CLIENT);
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            request.getHeaders().set(SERVICE_TOKEN_HEADER, serviceToken);
+            return execution.execute(request, body);
+        });
+        return restTemplate;
     }
 }
-
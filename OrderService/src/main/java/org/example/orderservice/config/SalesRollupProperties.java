@@ -0,0 +1,15 @@
+package org.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "sales-rollup")
+@Data
+public class SalesRollupProperties {
+    /** Rows each day and each product-year is spread over, so concurrent orders don't queue on one row lock. */
+    private int stripes = 8;
+    /** Months rebuilt in parallel by the backfill. */
+    private int backfillWorkers = 4;
+    /** Rebuilds the rollups from the order history in the background after startup. */
+    private boolean backfillOnStartup = false;
+}
@@ -1,7 +1,10 @@
 package org.example.orderservice.config;
 
+import org.example.instrumentation.FlightRecordingEndpoint;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
@@ -10,7 +13,19 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfig {
+    /** Flight recordings capture the process environment, so only admins may start or download them. */
     @Bean
+    @Order(1)
+    public SecurityFilterChain flightRecordingSecurityFilterChain(HttpSecurity http, HeaderAuthFilter headerAuthFilter) throws Exception {
+        http.securityMatcher(EndpointRequest.to(FlightRecordingEndpoint.class))
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(reg -> reg.anyRequest().hasRole("ADMIN"))
+                .addFilterBefore(headerAuthFilter, UsernamePasswordAuthenticationFilter.class);
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http, HeaderAuthFilter headerAuthFilter) throws Exception {
         http.csrf(csrf->csrf.disable())
                 .authorizeHttpRequests(reg-> reg.anyRequest().permitAll())
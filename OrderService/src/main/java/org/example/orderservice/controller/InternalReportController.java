@@ -0,0 +1,83 @@
+package org.example.orderservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.orderservice.exception.InvalidReportRequestException;
+import org.example.orderservice.service.SalesReportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sales reports for ReportService, read from the sales rollups. Responses are streamed as JSON, or as Smile when
+ * the client asks for {@code application/x-jackson-smile}; either is gzipped by the container when accepted.
+ */
+@RestController
+@RequestMapping("/internal/reports")
+@RequiredArgsConstructor
+public class InternalReportController {
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+    private static final int MAX_TOP_PRODUCTS = 10_000;
+
+    private final SalesReportService salesReportService;
+
+    @GetMapping(value = "/monthly-sales", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<StreamingResponseBody> monthlySales(
+            @RequestParam int year,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        validateYear(year);
+        boolean smile = prefersSmile(accept);
+        return respond(smile, out -> salesReportService.writeMonthlySales(year, smile, out));
+    }
+
+    @GetMapping(value = "/top-products", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<StreamingResponseBody> topProducts(
+            @RequestParam int year,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        validateYear(year);
+        if (limit < 1 || limit > MAX_TOP_PRODUCTS) {
+            throw new InvalidReportRequestException("limit must be between 1 and " + MAX_TOP_PRODUCTS);
+        }
+        boolean smile = prefersSmile(accept);
+        return respond(smile, out -> salesReportService.writeTopProducts(year, limit, smile, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> respond(boolean smile, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(smile ? APPLICATION_SMILE : MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    private static void validateYear(int year) {
+        if (year < 2000 || year > 2100) {
+            throw new InvalidReportRequestException("year must be between 2000 and 2100");
+        }
+    }
+
+    // Smile only when the client ranks it above JSON; wildcards and a missing header get JSON
+    private static boolean prefersSmile(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) continue;
+            if (type.equalsTypeAndSubtype(APPLICATION_SMILE)) return true;
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) return false;
+        }
+        return false;
+    }
+}
@@ -2,30 +2,90 @@ package org.example.orderservice.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.orderservice.config.AsyncTimeoutConfig;
+import org.example.orderservice.dto.BulkOrderReport;
+import org.example.orderservice.dto.OrderPageResponse;
 import org.example.orderservice.dto.OrderRequest;
 import org.example.orderservice.dto.OrderResponse;
+import org.example.orderservice.dto.OrderSearchCriteria;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.orderservice.exception.InvalidOrderException;
+import org.example.orderservice.model.OrderStatus;
+import org.example.orderservice.service.BulkOrderService;
+import org.example.orderservice.service.IdempotencyService;
+import org.example.orderservice.service.InvoiceExportService;
+import org.example.orderservice.service.InvoiceService;
+import org.example.orderservice.service.OrderExportService;
 import org.example.orderservice.service.OrderService;
-import org.example.orderservice.service.PDFService;
-import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.Principal;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/orders")
 @RequiredArgsConstructor
 public class OrderController {
     private final OrderService orderService;
-    private final PDFService pdfService;
+    private final BulkOrderService bulkOrderService;
+    private final IdempotencyService idempotencyService;
+    private final InvoiceService invoiceService;
+    private final InvoiceExportService invoiceExportService;
+    private final OrderExportService orderExportService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public OrderResponse create(@Valid @RequestBody OrderRequest request) {
-        return orderService.createOrder(request);
+    public OrderResponse create(@Valid @RequestBody OrderRequest request,
+                                @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                Principal principal) {
+        if (idempotencyKey == null) {
+            return orderService.createOrder(request);
+        }
+        String owner = principal == null ? "anonymous" : principal.getName();
+        return idempotencyService.execute(owner, idempotencyKey, request, completion -> orderService.createOrder(request, completion));
+    }
+
+    /**
+     * Creates many orders from one upload: NDJSON with one order per line, or CSV rows of
+     * {@code reference,customerId,productId,quantity}. Answers with a result per order. Orders are created for
+     * any customer id in the upload, so this is for partner integrations and admins only.
+     */
+    @PreAuthorize("hasAnyRole('PARTNER', 'ADMIN')")
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    public BulkOrderReport bulkCreate(HttpServletRequest request) throws IOException {
+        Reader reader = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8);
+        if (request.getContentType().startsWith("text/csv")) {
+            return bulkOrderService.ingestCsv(reader);
+        }
+        return bulkOrderService.ingestNdjson(reader);
+    }
+
+    @GetMapping
+    public OrderPageResponse search(OrderSearchCriteria criteria,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam(defaultValue = "50") int limit) {
+        return orderService.searchOrders(criteria, cursor, limit);
     }
 
     @GetMapping("/{id}")
@@ -34,18 +94,89 @@ public class OrderController {
     }
 
     @GetMapping("/{id}/invoice")
-    public ResponseEntity<FileSystemResource> downloadInvoice(@PathVariable Long id) {
+    public void downloadInvoice(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
         OrderResponse order = orderService.getOrderById(id);
-        String path = pdfService.generateInvoicePdf(order);
-        orderService.recordInvoiceGenerated(order, path);
-        File file = new File(path);
-        if (!file.exists()) {
-            return ResponseEntity.notFound().build();
+        String fingerprint = invoiceService.fingerprint(order);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + fingerprint + "\"")) {
+            return;
+        }
+        Path file = invoiceService.getOrRender(order, fingerprint);
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString());
+        sendFile(file, request, response);
+    }
+
+    /** Invoices of all orders placed from {@code from} through {@code to}, both inclusive, as one ZIP. */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/invoices/export")
+    public ResponseEntity<StreamingResponseBody> exportInvoices(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletRequest request) {
+        if (to.isBefore(from)) {
+            throw new InvalidOrderException("'to' must not be before 'from'");
+        }
+        AsyncTimeoutConfig.setTimeout(request, invoiceExportService.timeout());
+        StreamingResponseBody body = out -> invoiceExportService.exportZip(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("invoices_" + from + "_" + to + ".zip").build().toString())
+                .body(body);
+    }
+
+    /**
+     * All orders placed from {@code from} through {@code to} as NDJSON, streamed from a database cursor.
+     * Compressed with gzip when the client accepts it.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) {
+        if (to.isBefore(from)) {
+            throw new InvalidOrderException("'to' must not be before 'from'");
+        }
+        AsyncTimeoutConfig.setTimeout(request, orderExportService.timeout());
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024, true) : out;
+            orderExportService.exportNdjson(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), status, target);
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    // Lets Tomcat hand the file to the kernel with sendfile; other containers get a channel transfer
+    private void sendFile(Path file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            response.setContentLengthLong(size);
+            if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+                request.setAttribute("org.apache.tomcat.sendfile.filename", file.toAbsolutePath().toString());
+                request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+                request.setAttribute("org.apache.tomcat.sendfile.end", size);
+                return;
+            }
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, out);
+            }
+            response.flushBuffer();
         }
-        FileSystemResource resource = new FileSystemResource(file);
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", file.getName());
-        return new ResponseEntity<>(resource, headers, HttpStatus.OK);
     }
 }
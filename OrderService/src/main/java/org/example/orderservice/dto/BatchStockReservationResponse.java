@@ -0,0 +1,14 @@
+package org.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStockReservationResponse {
+    private List<BatchStockReservationResult> results;
+}
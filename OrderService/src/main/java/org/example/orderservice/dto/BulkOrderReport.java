@@ -0,0 +1,19 @@
+package org.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderReport {
+    private int received;
+    private int created;
+    private int rejected;
+    private long elapsedMillis;
+    private double ordersPerSecond;
+    private List<BulkOrderResult> results;
+}
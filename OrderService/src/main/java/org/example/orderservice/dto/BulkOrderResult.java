@@ -0,0 +1,18 @@
+package org.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderResult {
+    /** Position of the order in the upload, starting at 1. */
+    private int index;
+    private String reference;
+    private boolean created;
+    private Long orderId;
+    private String orderNumber;
+    private String error;
+}
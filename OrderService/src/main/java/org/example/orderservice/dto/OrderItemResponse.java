@@ -3,8 +3,7 @@ package org.example.orderservice.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-
-import java.math.BigDecimal;
+import org.example.orderservice.model.Money;
 
 @Data
 @NoArgsConstructor
@@ -13,6 +12,6 @@ public class OrderItemResponse {
     private Long id;
     private Long productId;
     private Integer quantity;
-    private BigDecimal price;
-    private BigDecimal subtotal;
+    private Money price;
+    private Money subtotal;
 }
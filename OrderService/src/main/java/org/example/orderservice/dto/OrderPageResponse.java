@@ -0,0 +1,16 @@
+package org.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPageResponse {
+    private List<OrderResponse> orders;
+    /** Pass back as {@code cursor} to get the next page; null on the last page. */
+    private String nextCursor;
+}
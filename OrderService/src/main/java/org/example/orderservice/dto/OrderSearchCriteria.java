@@ -0,0 +1,25 @@
+package org.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.orderservice.model.OrderStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** Optional filters of an order search; unset fields do not restrict the result. Dates are inclusive. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSearchCriteria {
+    private String customerId;
+    private OrderStatus status;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+}
@@ -0,0 +1,15 @@
+package org.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.orderservice.model.Money;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservedItemResponse {
+    private Long productId;
+    private Integer quantity;
+    private Money price;
+}
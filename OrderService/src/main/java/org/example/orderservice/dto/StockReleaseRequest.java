@@ -0,0 +1,15 @@
+package org.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReleaseRequest {
+    private String orderNumber;
+    private List<OrderItemRequest> items;
+}
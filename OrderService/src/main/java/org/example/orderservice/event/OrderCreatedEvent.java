@@ -3,8 +3,8 @@ package org.example.orderservice.event;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.example.orderservice.model.Money;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -16,7 +16,7 @@ public class OrderCreatedEvent {
     private String orderNumber;
     private Long customerId;
     private LocalDateTime orderDate;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private List<OrderItemEvent> items;
 }
 
@@ -27,7 +27,7 @@ class OrderItemEvent {
     private Long productId;
     private String productName;
     private Integer quantity;
-    private BigDecimal unitPrice;
+    private Money unitPrice;
 }
 
 @Data
@@ -37,6 +37,6 @@ class InvoiceGeneratedEvent {
     private Long orderId;
     private String invoiceNumber;
     private LocalDateTime invoiceDate;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private String pdfUrl;
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package org.example.orderservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/** Published inside the order's transaction; listeners act on it once the order is committed. */
+@Data
+@AllArgsConstructor
+public class OrderPlacedEvent {
+    private Long orderId;
+}
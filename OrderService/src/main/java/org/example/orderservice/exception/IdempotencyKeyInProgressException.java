@@ -0,0 +1,9 @@
+package org.example.orderservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class IdempotencyKeyInProgressException extends ControllerException {
+    public IdempotencyKeyInProgressException(String key) {
+        super(HttpStatus.CONFLICT, "A request with Idempotency-Key " + key + " is still in progress");
+    }
+}
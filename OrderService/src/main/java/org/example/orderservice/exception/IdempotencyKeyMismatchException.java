@@ -0,0 +1,9 @@
+package org.example.orderservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class IdempotencyKeyMismatchException extends ControllerException {
+    public IdempotencyKeyMismatchException(String key) {
+        super(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key " + key + " was already used with a different request");
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.orderservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidReportRequestException extends ControllerException {
+    public InvalidReportRequestException(String message) {
+        super(HttpStatus.BAD_REQUEST, message);
+    }
+}
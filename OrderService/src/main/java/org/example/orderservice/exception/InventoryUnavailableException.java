@@ -0,0 +1,9 @@
+package org.example.orderservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InventoryUnavailableException extends ControllerException {
+    public InventoryUnavailableException(String message) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, message);
+    }
+}
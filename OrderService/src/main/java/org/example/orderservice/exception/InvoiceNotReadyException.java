@@ -0,0 +1,9 @@
+package org.example.orderservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvoiceNotReadyException extends ControllerException {
+    public InvoiceNotReadyException(String message) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, message);
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.orderservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.example.orders.InvoiceRender")
+@Label("Invoice Render")
+@Category({"ERP", "Invoices"})
+@Description("Rendering of one invoice PDF")
+@StackTrace(false)
+public class InvoiceRenderEvent extends Event {
+    @Label("Order Number")
+    public String orderNumber;
+
+    @Label("Items")
+    public int itemCount;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,25 @@
+package org.example.orderservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Spans one call to {@code OrderService.createOrder}; its phases are recorded as {@link OrderCreationPhaseEvent}s. */
+@Name("org.example.orders.OrderCreation")
+@Label("Order Creation")
+@Category({"ERP", "Orders"})
+@Description("Creation of one order, from stock reservation to the committed insert")
+@StackTrace(false)
+public class OrderCreationEvent extends Event {
+    @Label("Order Number")
+    public String orderNumber;
+
+    @Label("Items")
+    public int itemCount;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,33 @@
+package org.example.orderservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.example.orders.OrderCreationPhase")
+@Label("Order Creation Phase")
+@Category({"ERP", "Orders"})
+@Description("One phase of an order creation: reserve-stock, persist or release-stock")
+@StackTrace(false)
+public class OrderCreationPhaseEvent extends Event {
+    public static final String RESERVE_STOCK = "reserve-stock";
+    public static final String PERSIST = "persist";
+    public static final String RELEASE_STOCK = "release-stock";
+
+    @Label("Order Number")
+    public String orderNumber;
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    public OrderCreationPhaseEvent(String orderNumber, String phase) {
+        this.orderNumber = orderNumber;
+        this.phase = phase;
+    }
+}
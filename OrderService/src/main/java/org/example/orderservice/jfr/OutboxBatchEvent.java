@@ -0,0 +1,24 @@
+package org.example.orderservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.example.orders.OutboxBatch")
+@Label("Outbox Batch")
+@Category({"ERP", "Outbox"})
+@Description("Publishing one claimed outbox batch and marking it processed")
+@StackTrace(false)
+public class OutboxBatchEvent extends Event {
+    @Label("Batch Size")
+    public int batchSize;
+
+    @Label("Confirmed")
+    public int confirmed;
+
+    @Label("Failed")
+    public int failed;
+}
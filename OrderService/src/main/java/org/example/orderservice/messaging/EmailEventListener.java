@@ -1,27 +1,140 @@
 package org.example.orderservice.messaging;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.orderservice.config.EmailListenerProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.amqp.support.AmqpHeaders;
-import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * Consumes email events in batches from the shard queues. Every order hashes to one shard and each shard has a
+ * single active consumer, so the events of an order arrive in publish order. Within a batch the events are grouped by order and each group runs on the lane its order id hashes to, so events
+ * of one order stay in delivery order while different orders run in parallel. Once every group has finished, each
+ * message is acked on its own and a message that failed is rejected to the dead letter queue without the rest of
+ * its batch. Event ids seen recently are remembered in a bounded window so redeliveries are dropped without
+ * touching the database.
+ */
 @Component
 public class EmailEventListener {
     private static final Logger log = LoggerFactory.getLogger(EmailEventListener.class);
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+    private final ObjectMapper objectMapper;
+    private final ExecutorService[] lanes;
+    private final Map<String, Boolean> handledIds;
+    private final Counter duplicateCounter;
 
-    @RabbitListener(queues = RabbitConfig.QUEUE_EMAIL)
-    public void handleEvent(Map<String,Object> payload, @Header(AmqpHeaders.RECEIVED_ROUTING_KEY) String routingKey){
+    public EmailEventListener(ObjectMapper objectMapper, EmailListenerProperties props, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.lanes = new ExecutorService[Math.max(1, props.getStripes())];
+        for (int i = 0; i < lanes.length; i++) {
+            String name = "email-lane-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, name);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        int window = props.getDedupeWindow();
+        this.handledIds = new LinkedHashMap<>(Math.min(window, 1024), 0.75f) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > window;
+            }
+        };
+        this.duplicateCounter = Counter.builder("orders.email.duplicates")
+                .description("Redelivered email events dropped by the idempotency window")
+                .register(meterRegistry);
+    }
+
+    // the unsharded queue is still listened to so whatever it held before the upgrade is delivered
+    @RabbitListener(queues = {"#{@emailQueue}",
+            "#{@emailShards.getDeclarablesByType(T(org.springframework.amqp.core.Queue))}"},
+            containerFactory = RabbitConfig.EMAIL_LISTENER_FACTORY)
+    public void handleEvents(List<Message> messages, Channel channel) throws IOException {
+        Map<Object, List<Message>> byOrder = new LinkedHashMap<>();
+        Set<String> batchIds = new HashSet<>();
+        for (Message message : messages) {
+            String eventId = message.getMessageProperties().getMessageId();
+            if (eventId != null && (!batchIds.add(eventId) || isHandled(eventId))) {
+                duplicateCounter.increment();
+                log.debug("[EMAIL] Dropping duplicate event id={}", eventId);
+                continue;
+            }
+            Object orderId = message.getMessageProperties().getHeaders().get("orderId");
+            byOrder.computeIfAbsent(orderId, k -> new ArrayList<>()).add(message);
+        }
+        Set<Long> failedTags = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<Void>> groups = new ArrayList<>(byOrder.size());
+        for (Map.Entry<Object, List<Message>> group : byOrder.entrySet()) {
+            ExecutorService lane = lanes[Math.floorMod(String.valueOf(group.getKey()).hashCode(), lanes.length)];
+            groups.add(CompletableFuture.runAsync(() -> group.getValue().forEach(message -> {
+                try {
+                    handleEvent(message);
+                } catch (RuntimeException e) {
+                    failedTags.add(message.getMessageProperties().getDeliveryTag());
+                }
+            }), lane));
+        }
+        CompletableFuture.allOf(groups.toArray(CompletableFuture[]::new)).join();
+        for (Message message : messages) {
+            long tag = message.getMessageProperties().getDeliveryTag();
+            if (failedTags.contains(tag)) {
+                channel.basicReject(tag, false);
+            } else {
+                channel.basicAck(tag, false);
+            }
+        }
+    }
+
+    private void handleEvent(Message message) {
+        String routingKey = message.getMessageProperties().getReceivedRoutingKey();
+        String eventId = message.getMessageProperties().getMessageId();
         try {
+            Map<String, Object> payload = objectMapper.readValue(message.getBody(), PAYLOAD_TYPE);
             Object orderId = payload.get("orderId");
             log.info("[EMAIL] Simulated email sent routingKey={} orderId={} payloadKeys={}", routingKey, orderId, payload.keySet());
-        } catch (Exception e){
+            if (eventId != null) markHandled(eventId);
+        } catch (IOException e) {
             log.warn("[EMAIL] Failed processing event routingKey={} error={}", routingKey, e.getMessage());
-            throw e; // let container handle retry / DLQ
+            throw new IllegalArgumentException("Unreadable email event id=" + eventId, e);
         }
     }
-}
 
+    private boolean isHandled(String eventId) {
+        synchronized (handledIds) {
+            return handledIds.containsKey(eventId);
+        }
+    }
+
+    private void markHandled(String eventId) {
+        synchronized (handledIds) {
+            handledIds.put(eventId, Boolean.TRUE);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
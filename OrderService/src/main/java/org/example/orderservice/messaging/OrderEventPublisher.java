@@ -1,26 +1,117 @@
 package org.example.orderservice.messaging;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.orderservice.config.OutboxProperties;
+import org.example.orderservice.model.OrderEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Publishes outbox events with correlated publisher confirms. A batch is sent in windows: every message of a window
+ * goes out before the publisher waits for their confirms, so one broker round trip covers the whole window.
+ * Only the relay calls this, never a request thread.
+ */
 @Component
-@RequiredArgsConstructor
 public class OrderEventPublisher {
     private static final Logger log = LoggerFactory.getLogger(OrderEventPublisher.class);
     private final RabbitTemplate rabbitTemplate;
+    private final OutboxProperties props;
+    private final Counter ackCounter;
+    private final Counter nackCounter;
+    private final Timer confirmLatency;
 
-    public void publish(String routingKey, Map<String,Object> payload){
-        try {
-            rabbitTemplate.convertAndSend(RabbitConfig.EXCHANGE, routingKey, payload);
-            log.info("Published event routingKey={} payloadKeys={}", routingKey, payload.keySet());
-        } catch (Exception e){
-            log.warn("Failed to publish event routingKey={} error={}", routingKey, e.getMessage());
+    public OrderEventPublisher(RabbitTemplate rabbitTemplate, OutboxProperties props, MeterRegistry meterRegistry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.props = props;
+        this.ackCounter = Counter.builder("orders.events.published").tag("outcome", "ack").register(meterRegistry);
+        this.nackCounter = Counter.builder("orders.events.published").tag("outcome", "nack").register(meterRegistry);
+        this.confirmLatency = Timer.builder("orders.events.confirm.latency")
+                .description("Time from sending a window until its confirms arrived")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public PublishResult publish(List<OrderEvent> events) {
+        List<OrderEvent> confirmed = new ArrayList<>(events.size());
+        List<OrderEvent> failed = new ArrayList<>();
+        int window = Math.max(1, props.getPublishWindow());
+        for (int from = 0; from < events.size(); from += window) {
+            List<OrderEvent> slice = events.subList(from, Math.min(from + window, events.size()));
+            publishWindow(slice, confirmed, failed);
+        }
+        ackCounter.increment(confirmed.size());
+        nackCounter.increment(failed.size());
+        if (!failed.isEmpty()) {
+            log.warn("Broker did not confirm {} of {} events", failed.size(), events.size());
         }
+        return new PublishResult(confirmed, failed);
     }
-}
 
+    private void publishWindow(List<OrderEvent> slice, List<OrderEvent> confirmed, List<OrderEvent> failed) {
+        long start = System.nanoTime();
+        List<CorrelationData> pending = new ArrayList<>(slice.size());
+        for (OrderEvent ev : slice) {
+            CorrelationData correlation = new CorrelationData(String.valueOf(ev.getId()));
+            try {
+                rabbitTemplate.send(RabbitConfig.EXCHANGE, ev.getEventType().getRoutingKey(), toMessage(ev), correlation);
+                pending.add(correlation);
+            } catch (Exception e) {
+                log.warn("Failed to publish event id={} error={}", ev.getId(), e.getMessage());
+                pending.add(null);
+            }
+        }
+        long deadline = start + props.getConfirmTimeout().toNanos();
+        for (int i = 0; i < slice.size(); i++) {
+            OrderEvent ev = slice.get(i);
+            CorrelationData correlation = pending.get(i);
+            if (correlation == null) {
+                failed.add(ev);
+                continue;
+            }
+            try {
+                CorrelationData.Confirm confirm = correlation.getFuture()
+                        .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (confirm.isAck()) {
+                    confirmed.add(ev);
+                } else {
+                    log.warn("Event nacked id={} reason={}", ev.getId(), confirm.getReason());
+                    failed.add(ev);
+                }
+            } catch (TimeoutException | ExecutionException e) {
+                failed.add(ev);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.addAll(slice.subList(i, slice.size()));
+                return;
+            }
+        }
+        confirmLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Message toMessage(OrderEvent ev) {
+        return MessageBuilder.withBody(ev.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setMessageId(String.valueOf(ev.getId()))
+                .setHeader("eventType", ev.getEventType().name())
+                .setHeader("orderId", ev.getOrderId())
+                .build();
+    }
+
+    public record PublishResult(List<OrderEvent> confirmed, List<OrderEvent> failed) {}
+}
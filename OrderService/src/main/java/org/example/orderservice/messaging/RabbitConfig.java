@@ -1,25 +1,44 @@
 package org.example.orderservice.messaging;
 
+import org.example.orderservice.config.EmailListenerProperties;
+import org.example.orderservice.model.EventType;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Email events are sharded by order: the topic exchange forwards them to a consistent-hash exchange keyed on the
+ * {@code orderId} header, which spreads orders over {@code email.listener.shards} queues. Each shard queue has a
+ * single active consumer, so all events of one order are consumed in publish order while the shards run in
+ * parallel. The consistent-hash exchange needs the rabbitmq_consistent_hash_exchange plugin on the broker.
+ */
 @Configuration
 @EnableRabbit
 public class RabbitConfig {
     public static final String EXCHANGE = "orders.events";
+    public static final String EMAIL_HASH_EXCHANGE = "orders.events.email.hash";
+    /** Unsharded queue of earlier releases; only drained, no longer bound. */
     public static final String QUEUE_EMAIL = "orders.events.email";
+    public static final String QUEUE_EMAIL_SHARD_PREFIX = "orders.events.email.shard-";
     public static final String QUEUE_DLQ = "orders.dlq";
+    public static final String EMAIL_LISTENER_FACTORY = "emailListenerContainerFactory";
 
     @Bean
     public TopicExchange ordersExchange() { return ExchangeBuilder.topicExchange(EXCHANGE).durable(true).build(); }
 
     @Bean
     public Queue emailQueue() {
+        // declared with its original arguments so existing brokers accept it
         return QueueBuilder.durable(QUEUE_EMAIL)
                 .withArgument("x-dead-letter-exchange", "")
                 .withArgument("x-dead-letter-routing-key", QUEUE_DLQ)
@@ -30,10 +49,41 @@ public class RabbitConfig {
     public Queue deadLetterQueue() { return QueueBuilder.durable(QUEUE_DLQ).build(); }
 
     @Bean
-    public Binding bindingOrderCreated() { return BindingBuilder.bind(emailQueue()).to(ordersExchange()).with("order.created"); }
+    public CustomExchange emailHashExchange() {
+        return new CustomExchange(EMAIL_HASH_EXCHANGE, "x-consistent-hash", true, false, Map.of("hash-header", "orderId"));
+    }
+
+    @Bean
+    public Binding bindingOrderCreated() { return BindingBuilder.bind(emailHashExchange()).to(ordersExchange()).with(EventType.ORDER_CREATED.getRoutingKey()); }
+
+    @Bean
+    public Binding bindingInvoiceGenerated() { return BindingBuilder.bind(emailHashExchange()).to(ordersExchange()).with(EventType.INVOICE_GENERATED.getRoutingKey()); }
 
+    /** The shard queues, each bound to the hash exchange with the same weight. */
     @Bean
-    public Binding bindingInvoiceGenerated() { return BindingBuilder.bind(emailQueue()).to(ordersExchange()).with("invoice.generated"); }
+    public Declarables emailShards(EmailListenerProperties props) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, props.getShards()); i++) {
+            Queue shard = QueueBuilder.durable(QUEUE_EMAIL_SHARD_PREFIX + i)
+                    .singleActiveConsumer()
+                    .withArgument("x-dead-letter-exchange", "")
+                    .withArgument("x-dead-letter-routing-key", QUEUE_DLQ)
+                    .build();
+            declarables.add(shard);
+            declarables.add(BindingBuilder.bind(shard).to(emailHashExchange()).with("1").noargs());
+        }
+        return new Declarables(declarables);
+    }
+
+    /** Bindings are never removed by declaring, so the old queue is unbound here and only drains what it holds. */
+    @Bean
+    public ApplicationRunner unbindLegacyEmailQueue(AmqpAdmin amqpAdmin) {
+        return args -> {
+            for (EventType type : List.of(EventType.ORDER_CREATED, EventType.INVOICE_GENERATED)) {
+                amqpAdmin.removeBinding(BindingBuilder.bind(emailQueue()).to(ordersExchange()).with(type.getRoutingKey()));
+            }
+        };
+    }
 
     @Bean
     public Jackson2JsonMessageConverter jacksonMessageConverter(){ return new Jackson2JsonMessageConverter(); }
@@ -44,4 +94,23 @@ public class RabbitConfig {
         tpl.setMessageConverter(conv);
         return tpl;
     }
+
+    @Bean(EMAIL_LISTENER_FACTORY)
+    public SimpleRabbitListenerContainerFactory emailListenerContainerFactory(ConnectionFactory cf, EmailListenerProperties props) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(cf);
+        // every consumer subscribes to all shards and the broker makes one of them active per shard, so consumers
+        // beyond the shard count across all nodes only stand by
+        factory.setConcurrentConsumers(props.getConcurrency());
+        factory.setMaxConcurrentConsumers(props.getMaxConcurrency());
+        factory.setPrefetchCount(Math.max(props.getPrefetch(), props.getBatchSize()));
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(props.getBatchSize());
+        factory.setReceiveTimeout(props.getReceiveTimeout().toMillis());
+        // the listener acks each message itself, so one bad message is dead-lettered without the rest of its batch
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
 }
@@ -1,7 +1,18 @@
 package org.example.orderservice.model;
 
 public enum EventType {
-    ORDER_CREATED,
-    INVOICE_GENERATED
-}
+    ORDER_CREATED("order.created"),
+    INVOICE_GENERATED("invoice.generated"),
+    /** A stock release InventoryService did not accept; retried by StockReleaseService, never sent to the broker. */
+    STOCK_RELEASE("stock.release");
+
+    private final String routingKey;
 
+    EventType(String routingKey) {
+        this.routingKey = routingKey;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+}
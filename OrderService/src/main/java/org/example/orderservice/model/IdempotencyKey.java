@@ -0,0 +1,36 @@
+package org.example.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys")
+@IdClass(IdempotencyKeyId.class)
+@Getter
+@Setter
+public class IdempotencyKey {
+    /** The authenticated caller, or {@code anonymous}. */
+    @Id
+    private String owner;
+
+    @Id
+    @Column(name = "idem_key", length = 128)
+    private String key;
+
+    @Column(length = 64, nullable = false)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IdempotencyStatus status;
+
+    @Column(columnDefinition = "text")
+    private String responseBody;
+
+    private LocalDateTime createdAt;
+    /** While in progress this is a short lease; once completed, the end of the retention period. */
+    private LocalDateTime expiresAt;
+}
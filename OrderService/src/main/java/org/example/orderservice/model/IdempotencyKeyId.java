@@ -0,0 +1,16 @@
+package org.example.orderservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/** Primary key of {@link IdempotencyKey}: keys are scoped to the caller that sent them. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKeyId implements Serializable {
+    private String owner;
+    private String key;
+}
@@ -0,0 +1,6 @@
+package org.example.orderservice.model;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -0,0 +1,77 @@
+package org.example.orderservice.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount in the platform currency held as a count of minor units (cents), so adding line totals is a long
+ * addition instead of a {@code BigDecimal} allocation. The scale is fixed at {@link #SCALE} decimal places, the
+ * same as the {@code numeric(38, 2)} money columns, which lets {@link MoneyConverter} map it without loss. Overflow
+ * throws rather than wraps.
+ * <p>
+ * In JSON it is written and read as a plain decimal number, so the wire format is the same as with
+ * {@code BigDecimal}.
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+    private static final long MINOR_PER_UNIT = BigDecimal.ONE.scaleByPowerOfTen(SCALE).longValueExact();
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /** Converts an exact amount; throws {@link ArithmeticException} if it has more than {@link #SCALE} decimals. */
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        return of(amount, RoundingMode.UNNECESSARY);
+    }
+
+    public static Money of(BigDecimal amount, RoundingMode rounding) {
+        if (amount == null) {
+            return null;
+        }
+        return ofMinor(amount.setScale(SCALE, rounding).unscaledValue().longValueExact());
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(long quantity) {
+        return ofMinor(Math.multiplyExact(minorUnits, quantity));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    /** The amount as a plain decimal, e.g. {@code 19.90} or {@code -0.05}. */
+    @Override
+    public String toString() {
+        long units = Math.abs(minorUnits / MINOR_PER_UNIT);
+        String fraction = Long.toString(Math.abs(minorUnits % MINOR_PER_UNIT));
+        StringBuilder sb = new StringBuilder(24);
+        if (minorUnits < 0) sb.append('-');
+        sb.append(units).append('.');
+        for (int i = fraction.length(); i < SCALE; i++) sb.append('0');
+        return sb.append(fraction).toString();
+    }
+}
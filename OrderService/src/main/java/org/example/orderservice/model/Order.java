@@ -3,7 +3,6 @@ package org.example.orderservice.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -13,12 +12,14 @@ import java.util.List;
 @Table(name = "orders")
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
+    @Column(unique = true)
     private String orderNumber;
     private LocalDateTime orderDate;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private String customerId;
 
     @Enumerated(EnumType.STRING)
@@ -30,25 +31,33 @@ public class Order {
     public Order() {
         this.orderDate = LocalDateTime.now();
         this.status = OrderStatus.PENDING;
-        this.totalAmount = BigDecimal.ZERO;
+        this.totalAmount = Money.ZERO;
     }
 
     public void addItem(OrderItem item) {
         items.add(item);
         item.setOrder(this);
-        calculateTotal();
+        totalAmount = totalAmount.plus(item.getSubtotal());
     }
 
     public void removeItem(OrderItem item) {
-        items.remove(item);
+        if (items.remove(item)) {
+            totalAmount = totalAmount.minus(item.getSubtotal());
+        }
         item.setOrder(null);
-        calculateTotal();
+    }
+
+    /** Called by an item of this order when its subtotal changes, to keep the total in step. */
+    void subtotalChanged(Money previous, Money current) {
+        totalAmount = totalAmount.minus(previous).plus(current);
     }
 
     private void calculateTotal() {
-        this.totalAmount = items.stream()
-                .map(OrderItem::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long total = 0;
+        for (OrderItem item : items) {
+            total = Math.addExact(total, item.getSubtotal().minorUnits());
+        }
+        this.totalAmount = Money.ofMinor(total);
     }
 
     public void setId(Long id) { this.id = id; }
@@ -57,7 +66,7 @@ public class Order {
 
     public void setOrderDate(LocalDateTime orderDate) { this.orderDate = orderDate; }
 
-    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    public void setTotalAmount(Money totalAmount) { this.totalAmount = totalAmount; }
 
     public void setCustomerId(String customerId) { this.customerId = customerId; }
 
@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 @Setter
 public class OrderEvent {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_events_seq")
+    @SequenceGenerator(name = "order_events_seq", sequenceName = "order_events_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -25,6 +26,9 @@ public class OrderEvent {
     private LocalDateTime createdAt;
     private boolean processed;
     private LocalDateTime processedAt;
+    private LocalDateTime leaseUntil;
+    private int attempts;
+    private LocalDateTime failedAt;
 
     @PrePersist
     void prePersist(){
@@ -2,32 +2,37 @@ package org.example.orderservice.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
 @Getter
 @Table(name = "order_items")
 public class OrderItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     private Long productId;
     private Integer quantity;
-    private BigDecimal price;
-    private BigDecimal subtotal;
+    private Money price;
+    private Money subtotal;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id")
     private Order order;
 
+    // copy of the order's date: order_items is partitioned on it like orders
+    @Column(nullable = false)
+    private LocalDateTime orderDate;
+
     public OrderItem() {}
 
-    public OrderItem(Long productId, Integer quantity, BigDecimal price) { // updated constructor
+    public OrderItem(Long productId, Integer quantity, Money price) {
         this.productId = productId;
         this.quantity = quantity;
         this.price = price;
-        this.subtotal = price.multiply(BigDecimal.valueOf(quantity));
+        this.subtotal = price.times(quantity);
     }
 
     public void setId(Long id) { this.id = id; }
@@ -36,15 +41,26 @@ public class OrderItem {
 
     public void setQuantity(Integer quantity) {
         this.quantity = quantity;
-        this.subtotal = price.multiply(BigDecimal.valueOf(quantity));
+        setSubtotal(price.times(quantity));
     }
 
-    public void setPrice(BigDecimal price) {
+    public void setPrice(Money price) {
         this.price = price;
-        this.subtotal = price.multiply(BigDecimal.valueOf(quantity));
+        setSubtotal(price.times(quantity));
     }
 
-    public void setSubtotal(BigDecimal subtotal) { this.subtotal = subtotal; }
+    public void setSubtotal(Money subtotal) {
+        Money previous = this.subtotal;
+        this.subtotal = subtotal;
+        if (order != null && previous != null) order.subtotalChanged(previous, subtotal);
+    }
 
     public void setOrder(Order order) { this.order = order; }
+
+    public void setOrderDate(LocalDateTime orderDate) { this.orderDate = orderDate; }
+
+    @PrePersist
+    void prePersist() {
+        if (orderDate == null && order != null) orderDate = order.getOrderDate();
+    }
 }
@@ -0,0 +1,54 @@
+package org.example.orderservice.repository;
+
+import org.example.orderservice.model.IdempotencyKey;
+import org.example.orderservice.model.IdempotencyKeyId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, IdempotencyKeyId> {
+
+    // Returns 1 if this caller now owns the key: it was new, or its previous owner's lease or retention ran out
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys (owner, idem_key, request_hash, status, created_at, expires_at)
+            VALUES (:owner, :key, :requestHash, 'IN_PROGRESS', :now, :leaseUntil)
+            ON CONFLICT (owner, idem_key) DO UPDATE
+                SET request_hash = EXCLUDED.request_hash, status = 'IN_PROGRESS', response_body = NULL,
+                    created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at
+                WHERE idempotency_keys.expires_at < :now
+            """, nativeQuery = true)
+    int claim(@Param("owner") String owner,
+              @Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyKey k SET k.status = org.example.orderservice.model.IdempotencyStatus.COMPLETED,
+                k.responseBody = :responseBody, k.expiresAt = :expiresAt
+            WHERE k.owner = :owner AND k.key = :key
+            """)
+    int complete(@Param("owner") String owner,
+                 @Param("key") String key,
+                 @Param("responseBody") String responseBody,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("""
+            DELETE FROM IdempotencyKey k
+            WHERE k.owner = :owner AND k.key = :key
+              AND k.status = org.example.orderservice.model.IdempotencyStatus.IN_PROGRESS
+            """)
+    int release(@Param("owner") String owner, @Param("key") String key);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
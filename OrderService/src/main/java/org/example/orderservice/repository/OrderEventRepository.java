@@ -2,12 +2,68 @@ package org.example.orderservice.repository;
 
 import org.example.orderservice.model.OrderEvent;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
-    List<OrderEvent> findTop50ByProcessedFalseOrderByCreatedAtAsc();
-}
 
+    // Rows locked by another relay are skipped rather than waited on, so several nodes can claim concurrently.
+    // Stock releases are retried locally, not relayed to the broker.
+    @Query(value = """
+            SELECT * FROM order_events
+            WHERE processed = false AND (lease_until IS NULL OR lease_until < :now)
+              AND event_type <> 'STOCK_RELEASE'
+            ORDER BY created_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OrderEvent> findClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT * FROM order_events
+            WHERE processed = false AND (lease_until IS NULL OR lease_until < :now)
+              AND event_type = 'STOCK_RELEASE' AND failed_at IS NULL
+            ORDER BY created_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OrderEvent> findClaimableStockReleases(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OrderEvent e SET e.leaseUntil = :leaseUntil WHERE e.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Only rows still under the lease this relay set are renewed; the ids returned are the ones it still owns
+    @Query(value = """
+            UPDATE order_events SET lease_until = :leaseUntil
+            WHERE id IN (:ids) AND lease_until = :claimedUntil AND processed = false
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> renewLease(@Param("ids") Collection<Long> ids,
+                          @Param("claimedUntil") LocalDateTime claimedUntil,
+                          @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE OrderEvent e SET e.leaseUntil = :leaseUntil, e.attempts = e.attempts + 1 WHERE e.id = :id")
+    int leaseAttempt(@Param("id") Long id, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // the row stays unprocessed, so given-up releases can be found and replayed by hand
+    @Modifying
+    @Query("UPDATE OrderEvent e SET e.failedAt = :failedAt, e.leaseUntil = null WHERE e.id IN :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("failedAt") LocalDateTime failedAt);
+
+    @Modifying
+    @Query("UPDATE OrderEvent e SET e.processed = true, e.processedAt = :processedAt, e.leaseUntil = null WHERE e.id IN :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("processedAt") LocalDateTime processedAt);
+
+    @Modifying
+    @Query("UPDATE OrderEvent e SET e.leaseUntil = null WHERE e.id IN :ids")
+    int releaseLease(@Param("ids") Collection<Long> ids);
+}
@@ -1,46 +1,80 @@
 package org.example.orderservice.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.orderservice.model.Money;
 import org.example.orderservice.model.Order;
 import org.example.orderservice.model.OrderStatus;
+import org.example.orderservice.service.SnowflakeOrderNumberGenerator;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderSearchRepository {
+
+    /**
+     * Looks an order up by number. Order numbers carry the time they were issued, so only the partitions around that
+     * time are searched; numbers in an older format fall back to searching all of them.
+     */
+    default Optional<Order> findByOrderNumber(String orderNumber) {
+        return SnowflakeOrderNumberGenerator.issuedAt(orderNumber)
+                .map(issued -> LocalDateTime.ofInstant(issued, ZoneId.systemDefault()))
+                .map(issued -> findByOrderNumberAndOrderDateBetween(orderNumber, issued.minusDays(1), issued.plusDays(1)))
+                .orElseGet(() -> findFirstByOrderNumber(orderNumber));
+    }
+
+    Optional<Order> findByOrderNumberAndOrderDateBetween(String orderNumber, LocalDateTime from, LocalDateTime to);
+
+    Optional<Order> findFirstByOrderNumber(String orderNumber);
 
-    Optional<Order> findByOrderNumber(String orderNumber);
-    List<Order> findByCustomerId(String customerId);
-    List<Order> findByStatus(OrderStatus status);
     List<Order> findByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate);
 
+    // Keyset page of ids in [from, to); callers pass the last id of the previous page
+    @Query("SELECT o.id FROM Order o WHERE o.orderDate >= :from AND o.orderDate < :to AND o.id > :afterId ORDER BY o.id")
+    List<Long> findIdsByOrderDateRange(@Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to,
+                                       @Param("afterId") Long afterId,
+                                       Pageable page);
+
+    @EntityGraph(attributePaths = "items")
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+
     @Query("SELECT COUNT(o) FROM Order o WHERE o.status = :status")
     Long countByStatus(@Param("status") OrderStatus status);
 
     @Query("SELECT o FROM Order o WHERE o.totalAmount > :amount")
-    List<Order> findOrdersWithTotalGreaterThan(@Param("amount") BigDecimal amount);
+    List<Order> findOrdersWithTotalGreaterThan(@Param("amount") Money amount);
 
     List<Order> findByCustomerIdAndStatus(String customerId, OrderStatus status);
 
-    // Monthly sales aggregation native query
+    // Monthly sales read from the daily rollup; cost depends on the days in the year, not on the orders
     @Query(value = """
-            SELECT EXTRACT(YEAR FROM o.order_date)  AS year,
-                   EXTRACT(MONTH FROM o.order_date) AS month,
-                   SUM(o.total_amount)             AS totalSales,
-                   COUNT(*)                        AS orderCount,
-                   AVG(o.total_amount)             AS avgOrderValue
-            FROM orders o
-            WHERE EXTRACT(YEAR FROM o.order_date) = :year
+            SELECT CAST(EXTRACT(YEAR FROM d.sales_date) AS integer)  AS year,
+                   CAST(EXTRACT(MONTH FROM d.sales_date) AS integer) AS month,
+                   SUM(d.total_sales)                                AS totalSales,
+                   CAST(SUM(d.order_count) AS bigint)                AS orderCount,
+                   SUM(d.total_sales) / SUM(d.order_count)           AS avgOrderValue
+            FROM daily_sales d
+            WHERE d.sales_date >= make_date(:year, 1, 1) AND d.sales_date < make_date(:year + 1, 1, 1)
             GROUP BY year, month
+            HAVING SUM(d.order_count) > 0
             ORDER BY month
             """, nativeQuery = true)
-    List<MonthlySalesRow> monthlySales(@Param("year") int year);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<MonthlySalesRow> monthlySales(@Param("year") int year);
 
     interface MonthlySalesRow {
         Integer getYear();
@@ -50,18 +84,20 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
         BigDecimal getAvgOrderValue();
     }
 
+    // Top products read from the per-year rollup; cost depends on the products sold that year, not on the orders
     @Query(value = """
-            SELECT oi.product_id        AS productId,
-                   SUM(oi.quantity)     AS totalQuantity,
-                   SUM(oi.subtotal)     AS totalRevenue
-            FROM order_items oi
-            JOIN orders o ON oi.order_id = o.id
-            WHERE EXTRACT(YEAR FROM o.order_date) = :year
-            GROUP BY oi.product_id
-            ORDER BY totalRevenue DESC
+            SELECT p.product_id                    AS productId,
+                   CAST(SUM(p.quantity) AS bigint) AS totalQuantity,
+                   SUM(p.revenue)                  AS totalRevenue
+            FROM product_sales p
+            WHERE p.sales_year = :year
+            GROUP BY p.product_id
+            HAVING SUM(p.quantity) > 0
+            ORDER BY totalRevenue DESC, p.product_id
             LIMIT :limit
             """, nativeQuery = true)
-    List<TopProductRow> topProducts(@Param("year") int year, @Param("limit") int limit);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<TopProductRow> topProducts(@Param("year") int year, @Param("limit") int limit);
 
     interface TopProductRow {
         Long getProductId();
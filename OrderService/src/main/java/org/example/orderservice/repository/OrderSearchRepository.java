@@ -0,0 +1,15 @@
+package org.example.orderservice.repository;
+
+import org.example.orderservice.dto.OrderSearchCriteria;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderSearchRepository {
+
+    /**
+     * Ids of the orders matching {@code criteria}, newest first by (orderDate, id), strictly after the given
+     * position. A null position starts from the newest order.
+     */
+    List<Long> searchIds(OrderSearchCriteria criteria, LocalDateTime afterOrderDate, Long afterId, int limit);
+}
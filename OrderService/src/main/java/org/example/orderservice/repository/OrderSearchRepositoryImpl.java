@@ -0,0 +1,61 @@
+package org.example.orderservice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.example.orderservice.dto.OrderSearchCriteria;
+import org.example.orderservice.model.Money;
+import org.example.orderservice.model.Order;
+
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class OrderSearchRepositoryImpl implements OrderSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> searchIds(OrderSearchCriteria criteria, LocalDateTime afterOrderDate, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Order> order = query.from(Order.class);
+
+        List<Predicate> where = new ArrayList<>();
+        if (criteria.getCustomerId() != null) {
+            where.add(cb.equal(order.get("customerId"), criteria.getCustomerId()));
+        }
+        if (criteria.getStatus() != null) {
+            where.add(cb.equal(order.get("status"), criteria.getStatus()));
+        }
+        if (criteria.getFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(order.get("orderDate"), criteria.getFrom().atStartOfDay()));
+        }
+        if (criteria.getTo() != null) {
+            where.add(cb.lessThan(order.get("orderDate"), criteria.getTo().plusDays(1).atStartOfDay()));
+        }
+        if (criteria.getMinAmount() != null) {
+            // totals are whole cents, so rounding the bounds inwards keeps the same matches
+            where.add(cb.greaterThanOrEqualTo(order.get("totalAmount"), Money.of(criteria.getMinAmount(), RoundingMode.CEILING)));
+        }
+        if (criteria.getMaxAmount() != null) {
+            where.add(cb.lessThanOrEqualTo(order.get("totalAmount"), Money.of(criteria.getMaxAmount(), RoundingMode.FLOOR)));
+        }
+        if (afterOrderDate != null && afterId != null) {
+            // keyset: (orderDate, id) < (afterOrderDate, afterId)
+            where.add(cb.or(
+                    cb.lessThan(order.get("orderDate"), afterOrderDate),
+                    cb.and(cb.equal(order.get("orderDate"), afterOrderDate), cb.lessThan(order.get("id"), afterId))));
+        }
+
+        query.select(order.get("id"))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.desc(order.get("orderDate")), cb.desc(order.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
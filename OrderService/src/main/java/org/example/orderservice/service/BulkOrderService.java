@@ -0,0 +1,337 @@
+package org.example.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.orderservice.client.InventoryClient;
+import org.example.orderservice.dto.BatchStockReservationResponse;
+import org.example.orderservice.dto.BatchStockReservationResult;
+import org.example.orderservice.dto.BulkOrderReport;
+import org.example.orderservice.dto.BulkOrderResult;
+import org.example.orderservice.dto.OrderItemRequest;
+import org.example.orderservice.dto.OrderRequest;
+import org.example.orderservice.dto.ReservedItemResponse;
+import org.example.orderservice.exception.ControllerException;
+import org.example.orderservice.exception.InvalidOrderException;
+import org.example.orderservice.model.Order;
+import org.example.orderservice.model.OrderItem;
+import org.example.orderservice.model.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Creates orders from an uploaded NDJSON or CSV stream. The upload is read incrementally and handled in chunks:
+ * each chunk is validated, reserved with a single batch call to InventoryService and written with JDBC batch
+ * inserts in one transaction, so the cost per order is a fraction of a {@code POST /orders}. Orders are
+ * independent: an order that fails validation or reservation is reported and the rest go ahead.
+ */
+@Service
+public class BulkOrderService {
+    private static final Logger log = LoggerFactory.getLogger(BulkOrderService.class);
+    private static final String CSV_HEADER = "reference,customerId,productId,quantity";
+    private static final String INSERT_ORDER = """
+            INSERT INTO orders (id, order_number, order_date, total_amount, customer_id, status)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_ITEM = """
+            INSERT INTO order_items (id, order_id, order_date, product_id, quantity, price, subtotal)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final InventoryClient inventoryClient;
+    private final StockReleaseService stockReleaseService;
+    private final OrderEventService orderEventService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final SalesRollupService salesRollupService;
+    private final OrderNumberRegistry orderNumberRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final Map<String, Integer> sequenceIncrements = new ConcurrentHashMap<>();
+    private final Counter createdCounter;
+    private final Counter rejectedCounter;
+    private final Timer chunkTimer;
+
+    public BulkOrderService(InventoryClient inventoryClient,
+                            StockReleaseService stockReleaseService,
+                            OrderEventService orderEventService,
+                            OrderNumberGenerator orderNumberGenerator,
+                            SalesRollupService salesRollupService,
+                            OrderNumberRegistry orderNumberRegistry,
+                            JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            ObjectMapper objectMapper,
+                            Validator validator,
+                            MeterRegistry meterRegistry,
+                            @Value("${orders.bulk.chunk-size:500}") int chunkSize) {
+        this.inventoryClient = inventoryClient;
+        this.stockReleaseService = stockReleaseService;
+        this.orderEventService = orderEventService;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.salesRollupService = salesRollupService;
+        this.orderNumberRegistry = orderNumberRegistry;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.createdCounter = Counter.builder("orders.bulk.orders").tag("outcome", "created").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("orders.bulk.orders").tag("outcome", "rejected").register(meterRegistry);
+        this.chunkTimer = Timer.builder("orders.bulk.chunk")
+                .description("Time to reserve and persist one chunk of bulk orders")
+                .register(meterRegistry);
+    }
+
+    /** One order per line, shaped like the body of {@code POST /orders} plus an optional {@code reference}. */
+    public BulkOrderReport ingestNdjson(Reader input) throws IOException {
+        Ingest ingest = new Ingest();
+        BufferedReader reader = new BufferedReader(input);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) continue;
+            int index = ingest.nextIndex();
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                ingest.add(new ParsedOrder(index, node.path("reference").asText(null),
+                        objectMapper.treeToValue(node, OrderRequest.class), null));
+            } catch (JsonProcessingException e) {
+                ingest.add(new ParsedOrder(index, null, null, "Malformed JSON: " + e.getOriginalMessage()));
+            }
+        }
+        return ingest.finish();
+    }
+
+    /**
+     * Rows of {@code reference,customerId,productId,quantity} after a header line; consecutive rows with the same
+     * reference form one order. Fields are plain comma separated values without quoting.
+     */
+    public BulkOrderReport ingestCsv(Reader input) throws IOException {
+        Ingest ingest = new Ingest();
+        BufferedReader reader = new BufferedReader(input);
+        String header = reader.readLine();
+        if (header == null || !header.trim().equalsIgnoreCase(CSV_HEADER)) {
+            throw new InvalidOrderException("CSV must start with the header " + CSV_HEADER);
+        }
+        String reference = null;
+        OrderRequest current = null;
+        String error = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) continue;
+            String[] fields = line.split(",", -1);
+            String rowReference = fields[0].trim();
+            if (current == null || !rowReference.equals(reference)) {
+                if (current != null) {
+                    ingest.add(new ParsedOrder(ingest.nextIndex(), reference, current, error));
+                }
+                reference = rowReference;
+                current = new OrderRequest(fields.length > 1 ? fields[1].trim() : null, new ArrayList<>());
+                error = null;
+            }
+            if (fields.length != 4) {
+                error = "Expected 4 fields but got " + fields.length + ": " + line;
+                continue;
+            }
+            try {
+                current.getItems().add(new OrderItemRequest(Long.valueOf(fields[2].trim()), Integer.valueOf(fields[3].trim())));
+            } catch (NumberFormatException e) {
+                error = "Invalid number in row: " + line;
+            }
+        }
+        if (current != null) {
+            ingest.add(new ParsedOrder(ingest.nextIndex(), reference, current, error));
+        }
+        return ingest.finish();
+    }
+
+    private void processChunk(List<ParsedOrder> chunk, List<BulkOrderResult> results) {
+        Timer.Sample sample = Timer.start();
+        List<ParsedOrder> accepted = new ArrayList<>(chunk.size());
+        for (ParsedOrder parsed : chunk) {
+            String error = parsed.error() != null ? parsed.error() : validate(parsed.request());
+            if (error != null) {
+                results.add(rejected(parsed, error));
+            } else {
+                accepted.add(parsed);
+            }
+        }
+        if (accepted.isEmpty()) {
+            sample.stop(chunkTimer);
+            return;
+        }
+
+        BatchStockReservationResponse reservation;
+        try {
+            reservation = inventoryClient.reserveStockBatch(accepted.stream().map(p -> p.request().getItems()).toList());
+        } catch (ControllerException e) {
+            accepted.forEach(p -> results.add(rejected(p, e.getMessage())));
+            sample.stop(chunkTimer);
+            return;
+        }
+
+        List<ParsedOrder> reservedOrders = new ArrayList<>(accepted.size());
+        List<Order> orders = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            ParsedOrder parsed = accepted.get(i);
+            BatchStockReservationResult result = reservation.getResults().get(i);
+            if (!result.isReserved()) {
+                results.add(rejected(parsed, result.getError()));
+                continue;
+            }
+            Order order = new Order();
+            order.setOrderNumber(orderNumberGenerator.next());
+            order.setCustomerId(parsed.request().getCustomerId());
+            order.setStatus(OrderStatus.PENDING);
+            for (ReservedItemResponse reserved : result.getItems()) {
+                order.addItem(new OrderItem(reserved.getProductId(), reserved.getQuantity(), reserved.getPrice()));
+            }
+            reservedOrders.add(parsed);
+            orders.add(order);
+        }
+
+        if (!orders.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(s -> persist(orders));
+                for (int i = 0; i < orders.size(); i++) {
+                    Order order = orders.get(i);
+                    ParsedOrder parsed = reservedOrders.get(i);
+                    results.add(new BulkOrderResult(parsed.index(), parsed.reference(), true, order.getId(), order.getOrderNumber(), null));
+                }
+                createdCounter.increment(orders.size());
+            } catch (RuntimeException e) {
+                log.error("Bulk chunk persist failed orders={} error={}", orders.size(), e.getMessage());
+                for (int i = 0; i < orders.size(); i++) {
+                    stockReleaseService.release(orders.get(i).getOrderNumber(), reservedOrders.get(i).request().getItems());
+                }
+                reservedOrders.forEach(p -> results.add(rejected(p, "Could not be stored: " + e.getMessage())));
+            }
+        }
+        sample.stop(chunkTimer);
+    }
+
+    // Ids are drawn from the tables' sequences up front so orders and items go in as JDBC batches
+    private void persist(List<Order> orders) {
+        List<OrderItem> items = orders.stream().flatMap(o -> o.getItems().stream()).toList();
+        List<Long> orderIds = nextIds("orders_seq", orders.size());
+        List<Long> itemIds = nextIds("order_items_seq", items.size());
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setId(orderIds.get(i));
+        }
+        for (int i = 0; i < items.size(); i++) {
+            items.get(i).setId(itemIds.get(i));
+        }
+        jdbcTemplate.batchUpdate(INSERT_ORDER, orders, orders.size(), (ps, order) -> {
+            ps.setLong(1, order.getId());
+            ps.setString(2, order.getOrderNumber());
+            ps.setTimestamp(3, Timestamp.valueOf(order.getOrderDate()));
+            ps.setBigDecimal(4, order.getTotalAmount().toBigDecimal());
+            ps.setString(5, order.getCustomerId());
+            ps.setString(6, order.getStatus().name());
+        });
+        jdbcTemplate.batchUpdate(INSERT_ITEM, items, items.size(), (ps, item) -> {
+            ps.setLong(1, item.getId());
+            ps.setLong(2, item.getOrder().getId());
+            ps.setTimestamp(3, Timestamp.valueOf(item.getOrder().getOrderDate()));
+            ps.setLong(4, item.getProductId());
+            ps.setInt(5, item.getQuantity());
+            ps.setBigDecimal(6, item.getPrice().toBigDecimal());
+            ps.setBigDecimal(7, item.getSubtotal().toBigDecimal());
+        });
+        orderNumberRegistry.register(orders);
+        orderEventService.recordOrdersCreated(orders);
+        salesRollupService.recordPlaced(orders);
+    }
+
+    /**
+     * Takes ids from the same pooled sequence Hibernate uses: every {@code nextval} reserves the block of
+     * {@code increment} ids ending at the returned value, so a chunk needs only {@code count / increment} calls and
+     * never collides with ids handed out by the entity generator.
+     */
+    private List<Long> nextIds(String sequence, int count) {
+        if (count == 0) return List.of();
+        int increment = sequenceIncrements.computeIfAbsent(sequence, name -> jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?",
+                Integer.class, name));
+        int blocks = (count + increment - 1) / increment;
+        List<Long> highs = jdbcTemplate.queryForList(
+                "SELECT nextval(?::regclass) FROM generate_series(1, ?)", Long.class, sequence, blocks);
+        List<Long> ids = new ArrayList<>(count);
+        for (Long high : highs) {
+            for (long id = high - increment + 1; id <= high && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private String validate(OrderRequest request) {
+        Set<ConstraintViolation<OrderRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) return null;
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private BulkOrderResult rejected(ParsedOrder parsed, String error) {
+        rejectedCounter.increment();
+        return new BulkOrderResult(parsed.index(), parsed.reference(), false, null, null, error);
+    }
+
+    private record ParsedOrder(int index, String reference, OrderRequest request, String error) {}
+
+    /** Collects parsed orders into chunks and processes each chunk as soon as it is full. */
+    private final class Ingest {
+        private final long start = System.nanoTime();
+        private final List<BulkOrderResult> results = new ArrayList<>();
+        private List<ParsedOrder> chunk = new ArrayList<>(chunkSize);
+        private int received;
+
+        int nextIndex() {
+            return ++received;
+        }
+
+        void add(ParsedOrder order) {
+            chunk.add(order);
+            if (chunk.size() >= chunkSize) {
+                processChunk(chunk, results);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+
+        BulkOrderReport finish() {
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, results);
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            int created = (int) results.stream().filter(BulkOrderResult::isCreated).count();
+            double perSecond = elapsedMillis == 0 ? created : created * 1000.0 / elapsedMillis;
+            results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+            log.info("Bulk ingest received={} created={} rejected={} elapsedMs={} ordersPerSecond={}",
+                    received, created, received - created, elapsedMillis, String.format("%.1f", perSecond));
+            return new BulkOrderReport(received, created, received - created, elapsedMillis, perSecond, results);
+        }
+    }
+}
@@ -1,49 +1,257 @@
 package org.example.orderservice.service;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.orderservice.config.OutboxProperties;
+import org.example.orderservice.jfr.OutboxBatchEvent;
+import org.example.orderservice.messaging.OrderEventPublisher;
 import org.example.orderservice.model.OrderEvent;
 import org.example.orderservice.repository.OrderEventRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Outbox relay. A dispatcher thread claims pending events under a lease using {@code FOR UPDATE SKIP LOCKED}, so
+ * several OrderService nodes can drain the outbox side by side, and hands the batches to a fixed set of workers
+ * through a bounded queue. When the workers fall behind the queue fills up and the dispatcher stops claiming.
+ * Batch size grows while there is a backlog and the poll interval backs off while the outbox is empty; a local
+ * insert wakes the dispatcher immediately. A worker renews the lease when it takes a batch from the queue and
+ * publishes only the events whose lease it still holds, so a batch that waited past its lease and was claimed by
+ * another relay is not published twice. Workers publish each batch with publisher confirms; confirmed events are
+ * marked processed with a single UPDATE and the rest are released back to the outbox.
+ */
 @Component
-@RequiredArgsConstructor
-public class EventBatchProcessor {
+public class EventBatchProcessor implements SmartLifecycle {
     private static final Logger log = LoggerFactory.getLogger(EventBatchProcessor.class);
     private final OrderEventRepository repository;
-    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final OrderEventPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties props;
+    private final BlockingQueue<ClaimedBatch> queue;
+    private final Semaphore wakeUpSignal = new Semaphore(0);
+    private final List<Thread> threads = new ArrayList<>();
+    private final Counter processedCounter;
+    private final Counter failedCounter;
+    private final Counter lostLeaseCounter;
+    private final Timer lagTimer;
+    private volatile boolean running;
 
-    @Scheduled(fixedDelayString = "30000", initialDelay = 15000)
-    public void processPendingEvents() {
-        List<OrderEvent> events = repository.findTop50ByProcessedFalseOrderByCreatedAtAsc();
-        if (events.isEmpty()) return;
-        log.info("Batch start size={}", events.size());
-        for (OrderEvent ev : events) {
-            executor.submit(() -> handleEvent(ev));
+    public EventBatchProcessor(OrderEventRepository repository,
+                               OrderEventPublisher publisher,
+                               TransactionTemplate transactionTemplate,
+                               OutboxProperties props,
+                               MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.publisher = publisher;
+        this.transactionTemplate = transactionTemplate;
+        this.props = props;
+        this.queue = new ArrayBlockingQueue<>(props.getQueueCapacity());
+        Gauge.builder("outbox.relay.queue.size", queue, BlockingQueue::size)
+                .description("Claimed batches waiting for a worker")
+                .register(meterRegistry);
+        this.processedCounter = Counter.builder("outbox.relay.events").tag("outcome", "processed").register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.relay.events").tag("outcome", "failed").register(meterRegistry);
+        this.lostLeaseCounter = Counter.builder("outbox.relay.events").tag("outcome", "lease_lost").register(meterRegistry);
+        this.lagTimer = Timer.builder("outbox.relay.lag")
+                .description("Time from event insert until it was marked processed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /** Signals that new events were committed so the dispatcher polls now instead of at its next interval. */
+    public void wakeUp() {
+        if (wakeUpSignal.availablePermits() == 0) {
+            wakeUpSignal.release();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        threads.add(new Thread(this::dispatchLoop, "outbox-dispatcher"));
+        for (int i = 0; i < props.getWorkers(); i++) {
+            threads.add(new Thread(this::workLoop, "outbox-worker-" + i));
+        }
+        threads.forEach(t -> {
+            t.setDaemon(true);
+            t.start();
+        });
+        log.info("Outbox relay started workers={} batchSize={}..{}", props.getWorkers(), props.getMinBatchSize(), props.getMaxBatchSize());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        wakeUp();
+        for (Thread t : threads) {
+            try {
+                t.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        threads.clear();
+        List<ClaimedBatch> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        List<Long> ids = pending.stream().flatMap(b -> b.events().stream()).map(OrderEvent::getId).toList();
+        if (!ids.isEmpty()) {
+            transactionTemplate.executeWithoutResult(s -> repository.releaseLease(ids));
+            log.info("Outbox relay released {} unprocessed events on shutdown", ids.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void dispatchLoop() {
+        int batchSize = props.getMinBatchSize();
+        long idleMillis = props.getMinPollInterval().toMillis();
+        while (running) {
+            try {
+                ClaimedBatch claimed = claim(batchSize);
+                if (claimed != null) {
+                    queue.put(claimed);
+                }
+                int claimedCount = claimed == null ? 0 : claimed.events().size();
+                if (claimedCount == batchSize) {
+                    // backlog: claim bigger batches and go again without waiting
+                    batchSize = Math.min(batchSize * 2, props.getMaxBatchSize());
+                    idleMillis = props.getMinPollInterval().toMillis();
+                    continue;
+                }
+                batchSize = Math.max(props.getMinBatchSize(), claimedCount);
+                idleMillis = claimedCount == 0
+                        ? Math.min(idleMillis * 2, props.getMaxPollInterval().toMillis())
+                        : props.getMinPollInterval().toMillis();
+                if (wakeUpSignal.tryAcquire(idleMillis, TimeUnit.MILLISECONDS)) {
+                    wakeUpSignal.drainPermits();
+                    idleMillis = props.getMinPollInterval().toMillis();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Outbox claim failed error={}", e.getMessage());
+                sleepQuietly(props.getMaxPollInterval());
+            }
+        }
+    }
+
+    // Returns null when nothing was pending
+    private ClaimedBatch claim(int limit) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OrderEvent> events = repository.findClaimable(now, limit);
+            if (events.isEmpty()) {
+                return null;
+            }
+            LocalDateTime leaseUntil = leaseFrom(now);
+            repository.lease(events.stream().map(OrderEvent::getId).toList(), leaseUntil);
+            return new ClaimedBatch(events, leaseUntil);
+        });
+    }
+
+    /**
+     * Renews the lease of a batch taken from the queue and returns the events this relay still owns. An event
+     * whose lease ran out while queued and was claimed elsewhere, or was processed meanwhile, is dropped here.
+     */
+    private List<OrderEvent> renewLease(ClaimedBatch claimed) {
+        List<Long> ids = claimed.events().stream().map(OrderEvent::getId).toList();
+        List<Long> owned = transactionTemplate.execute(s ->
+                repository.renewLease(ids, claimed.leaseUntil(), leaseFrom(LocalDateTime.now())));
+        if (owned != null && owned.size() == ids.size()) {
+            return claimed.events();
+        }
+        Set<Long> stillOwned = owned == null ? Set.of() : new HashSet<>(owned);
+        List<OrderEvent> events = claimed.events().stream().filter(e -> stillOwned.contains(e.getId())).toList();
+        lostLeaseCounter.increment(ids.size() - events.size());
+        log.warn("Outbox batch lost its lease while queued, skipped={} of {}", ids.size() - events.size(), ids.size());
+        return events;
+    }
+
+    // The column keeps microseconds, so the value compared on renewal must not carry more
+    private LocalDateTime leaseFrom(LocalDateTime now) {
+        return now.plus(props.getLease()).truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private void workLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                ClaimedBatch claimed = queue.poll(props.getMaxPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+                if (claimed != null) {
+                    List<OrderEvent> batch = renewLease(claimed);
+                    if (!batch.isEmpty()) {
+                        processBatch(batch);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Outbox batch failed error={}", e.getMessage());
+            }
         }
     }
 
-    private void handleEvent(OrderEvent ev) {
+    private void processBatch(List<OrderEvent> batch) {
+        OutboxBatchEvent event = new OutboxBatchEvent();
+        event.begin();
+        event.batchSize = batch.size();
+        List<OrderEvent> done;
+        List<OrderEvent> failed;
+        LocalDateTime now;
         try {
-            // Simulate email sending or downstream publication
-            log.info("Processing event id={} type={} orderId={} sending email notification", ev.getId(), ev.getEventType(), ev.getOrderId());
-            // simulate some work
-            TimeUnit.MILLISECONDS.sleep(100);
-            ev.setProcessed(true);
-            ev.setProcessedAt(LocalDateTime.now());
-            repository.save(ev);
-            log.info("Processed event id={} type={} status=OK", ev.getId(), ev.getEventType());
-        } catch (Exception ex) {
-            log.warn("Event processing failed id={} type={} error={}", ev.getId(), ev.getEventType(), ex.getMessage());
+            OrderEventPublisher.PublishResult result = publisher.publish(batch);
+            done = result.confirmed();
+            failed = result.failed();
+            now = LocalDateTime.now();
+            event.confirmed = done.size();
+            event.failed = failed.size();
+            transactionTemplate.executeWithoutResult(s -> {
+                if (!done.isEmpty()) repository.markProcessed(done.stream().map(OrderEvent::getId).toList(), now);
+                // unconfirmed events go straight back to the outbox instead of waiting for the lease to run out
+                if (!failed.isEmpty()) repository.releaseLease(failed.stream().map(OrderEvent::getId).toList());
+            });
+        } finally {
+            event.commit();
+        }
+        processedCounter.increment(done.size());
+        failedCounter.increment(failed.size());
+        for (OrderEvent ev : done) {
+            if (ev.getCreatedAt() != null) lagTimer.record(Duration.between(ev.getCreatedAt(), now));
+        }
+        log.debug("Batch processed size={} failed={}", done.size(), failed.size());
+    }
+
+    private void sleepQuietly(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
-}
 
+    /** Events claimed together and the lease they were claimed with. */
+    private record ClaimedBatch(List<OrderEvent> events, LocalDateTime leaseUntil) {
+    }
+}
@@ -0,0 +1,246 @@
+package org.example.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.orderservice.config.IdempotencyProperties;
+import org.example.orderservice.dto.OrderResponse;
+import org.example.orderservice.exception.IdempotencyKeyInProgressException;
+import org.example.orderservice.exception.IdempotencyKeyMismatchException;
+import org.example.orderservice.exception.InvalidOrderException;
+import org.example.orderservice.model.IdempotencyKey;
+import org.example.orderservice.model.IdempotencyKeyId;
+import org.example.orderservice.model.IdempotencyStatus;
+import org.example.orderservice.repository.IdempotencyKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Runs a create-order request at most once per {@code Idempotency-Key} and caller; each caller has its own key
+ * space, so callers that pick the same key never see each other's responses. The first request claims the key in the
+ * {@code idempotency_keys} table and its response is stored there; retries get the stored response back without
+ * running the action again. Duplicates arriving while the first request is still running wait for its outcome:
+ * on the same node through an in-memory future, across nodes by polling the table. Completed keys are also kept
+ * in a bounded local cache, so most retries never reach the database.
+ * <p>
+ * The response is stored by the action itself, inside the transaction that commits its effects, so an order and
+ * its completed key are written together. A key is released only when that transaction did not commit, so the
+ * client can retry it. A key is bound to the request it was first used with; reusing it for a different body is
+ * rejected.
+ */
+@Service
+public class IdempotencyService {
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 128;
+    private final IdempotencyKeyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties props;
+    private final Cache<IdempotencyKeyId, StoredResponse> completed;
+    private final ConcurrentHashMap<IdempotencyKeyId, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyKeyRepository repository,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              IdempotencyProperties props) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.props = props;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(props.getLocalCacheSize())
+                .expireAfterWrite(props.getRetention())
+                .build();
+    }
+
+    /** Runs {@code action} once for the key within {@code owner}'s key space, the authenticated caller. */
+    public OrderResponse execute(String owner, String key, Object request, IdempotentAction action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidOrderException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        IdempotencyKeyId id = new IdempotencyKeyId(owner, key);
+        String requestHash = hash(request);
+        StoredResponse stored = completed.getIfPresent(id);
+        if (stored != null) {
+            return replay(key, requestHash, stored);
+        }
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            if (!running.requestHash().equals(requestHash)) {
+                throw new IdempotencyKeyMismatchException(key);
+            }
+            return await(key, running.result());
+        }
+        try {
+            OrderResponse response = claimAndRun(id, requestHash, action);
+            mine.result().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    private OrderResponse claimAndRun(IdempotencyKeyId id, String requestHash, IdempotentAction action) {
+        String key = id.getKey();
+        long deadline = System.nanoTime() + props.getWaitTimeout().toNanos();
+        long backoffMillis = 50;
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            Integer claimed = transactionTemplate.execute(s ->
+                    repository.claim(id.getOwner(), key, requestHash, now, now.plus(props.getInProgressLease())));
+            if (claimed != null && claimed > 0) {
+                return run(id, requestHash, action);
+            }
+            // another node owns the key, or it completed before this node's cache saw it
+            Optional<IdempotencyKey> row = repository.findById(id);
+            if (row.isPresent()) {
+                if (!row.get().getRequestHash().equals(requestHash)) {
+                    throw new IdempotencyKeyMismatchException(key);
+                }
+                if (row.get().getStatus() == IdempotencyStatus.COMPLETED) {
+                    StoredResponse stored = new StoredResponse(row.get().getRequestHash(), row.get().getResponseBody());
+                    completed.put(id, stored);
+                    return replay(key, requestHash, stored);
+                }
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IdempotencyKeyInProgressException(key);
+            }
+            sleep(backoffMillis);
+            backoffMillis = Math.min(backoffMillis * 2, 1000);
+        }
+    }
+
+    private OrderResponse run(IdempotencyKeyId id, String requestHash, IdempotentAction action) {
+        String key = id.getKey();
+        AtomicReference<String> committed = new AtomicReference<>();
+        OrderResponse response;
+        try {
+            response = action.run(result -> complete(id, result, committed));
+        } catch (RuntimeException e) {
+            if (committed.get() == null) {
+                transactionTemplate.executeWithoutResult(s -> repository.release(id.getOwner(), key));
+                throw e;
+            }
+            // the effects are committed, so the client must get the stored response rather than retry
+            log.warn("Idempotent request failed after commit key={} error={}", key, e.getMessage());
+            StoredResponse stored = new StoredResponse(requestHash, committed.get());
+            completed.put(id, stored);
+            return replay(key, requestHash, stored);
+        }
+        if (committed.get() == null) {
+            transactionTemplate.executeWithoutResult(s -> repository.release(id.getOwner(), key));
+            throw new IllegalStateException("Idempotent action for key " + key + " did not store its response");
+        }
+        completed.put(id, new StoredResponse(requestHash, committed.get()));
+        return response;
+    }
+
+    // joins the action's transaction; the body only counts as stored once that transaction commits
+    private void complete(IdempotencyKeyId id, OrderResponse response, AtomicReference<String> committed) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Idempotent response must be stored inside the action's transaction");
+        }
+        String body = write(response);
+        repository.complete(id.getOwner(), id.getKey(), body, LocalDateTime.now().plus(props.getRetention()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                committed.set(body);
+            }
+        });
+    }
+
+    private OrderResponse await(String key, CompletableFuture<OrderResponse> result) {
+        try {
+            return result.get(props.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(key);
+        } catch (ExecutionException e) {
+            // the duplicate gets the same outcome as the original request
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private OrderResponse replay(String key, String requestHash, StoredResponse stored) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException(key);
+        }
+        try {
+            return objectMapper.readValue(stored.responseBody(), OrderResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for Idempotency-Key " + key + " is unreadable", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        Integer purged = transactionTemplate.execute(s -> repository.deleteExpired(LocalDateTime.now()));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash request", e);
+        }
+    }
+
+    private String write(OrderResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to store response", e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for idempotent request", e);
+        }
+    }
+
+    /** An idempotent request. It must pass its response to {@code complete} inside the transaction it commits. */
+    @FunctionalInterface
+    public interface IdempotentAction {
+        OrderResponse run(Consumer<OrderResponse> complete);
+    }
+
+    private record StoredResponse(String requestHash, String responseBody) {}
+
+    private record InFlight(String requestHash, CompletableFuture<OrderResponse> result) {}
+}
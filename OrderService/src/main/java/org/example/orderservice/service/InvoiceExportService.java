@@ -0,0 +1,157 @@
+package org.example.orderservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.orderservice.config.InvoiceExportProperties;
+import org.example.orderservice.dto.OrderResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams the invoices of a date range as a ZIP straight into the response. Orders are read page by page and
+ * missing PDFs are rendered on a shared bounded pool; each entry is written as soon as its file is ready, with at
+ * most a fixed window of invoices in flight per export, so memory use does not depend on the size of the range.
+ */
+@Service
+public class InvoiceExportService {
+    private static final Logger log = LoggerFactory.getLogger(InvoiceExportService.class);
+    private static final int PROGRESS_LOG_INTERVAL = 500;
+    private final OrderService orderService;
+    private final InvoiceService invoiceService;
+    private final InvoiceExportProperties props;
+    private final ExecutorService renderPool;
+    private final AtomicInteger activeExports = new AtomicInteger();
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Counter bytesCounter;
+    private final Timer exportTimer;
+
+    public InvoiceExportService(OrderService orderService,
+                                InvoiceService invoiceService,
+                                InvoiceExportProperties props,
+                                MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.invoiceService = invoiceService;
+        this.props = props;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.renderPool = Executors.newFixedThreadPool(props.getWorkers(), r -> {
+            Thread t = new Thread(r, "invoice-export-" + threadIndex.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+        Gauge.builder("invoice.export.active", activeExports, AtomicInteger::get)
+                .description("Invoice exports currently streaming")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("invoice.export.entries").tag("outcome", "written").register(meterRegistry);
+        this.failedCounter = Counter.builder("invoice.export.entries").tag("outcome", "failed").register(meterRegistry);
+        this.bytesCounter = Counter.builder("invoice.export.bytes")
+                .description("Invoice bytes written into export archives")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.exportTimer = Timer.builder("invoice.export.duration").register(meterRegistry);
+    }
+
+    /** How long one export may stream. */
+    public Duration timeout() {
+        return props.getTimeout();
+    }
+
+    public void exportZip(LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        activeExports.incrementAndGet();
+        Timer.Sample sample = Timer.start();
+        ExecutorCompletionService<Path> completion = new ExecutorCompletionService<>(renderPool);
+        Deque<OrderResponse> pending = new ArrayDeque<>();
+        List<Future<Path>> inFlight = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+        long afterId = 0;
+        boolean exhausted = false;
+        int written = 0;
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            // PDF content streams are already compressed
+            zip.setLevel(Deflater.BEST_SPEED);
+            while (true) {
+                if (pending.isEmpty() && !exhausted) {
+                    List<OrderResponse> page = orderService.getOrdersPage(from, to, afterId, props.getPageSize());
+                    exhausted = page.size() < props.getPageSize();
+                    if (!page.isEmpty()) afterId = page.get(page.size() - 1).getId();
+                    pending.addAll(page);
+                }
+                while (inFlight.size() < props.getWindow() && !pending.isEmpty()) {
+                    OrderResponse order = pending.poll();
+                    inFlight.add(completion.submit(() -> render(order, failures)));
+                }
+                if (inFlight.isEmpty()) break;
+                Future<Path> done = completion.take();
+                inFlight.remove(done);
+                Path file = done.get();
+                if (file == null) continue;
+                zip.putNextEntry(new ZipEntry(file.getFileName().toString()));
+                bytesCounter.increment(Files.copy(file, zip));
+                zip.closeEntry();
+                writtenCounter.increment();
+                if (++written % PROGRESS_LOG_INTERVAL == 0) {
+                    log.info("Invoice export progress range={}..{} written={} failed={}", from, to, written, failures.size());
+                }
+            }
+            if (!failures.isEmpty()) {
+                zip.putNextEntry(new ZipEntry("export-errors.txt"));
+                zip.write(String.join("\n", failures).getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+            log.info("Invoice export finished range={}..{} written={} failed={}", from, to, written, failures.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Invoice export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Invoice export failed", e.getCause());
+        } finally {
+            // the client may have gone away mid-stream; stop rendering for it
+            inFlight.forEach(f -> f.cancel(true));
+            activeExports.decrementAndGet();
+            sample.stop(exportTimer);
+        }
+    }
+
+    private Path render(OrderResponse order, List<String> failures) {
+        try {
+            return invoiceService.ensureRendered(order);
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            synchronized (failures) {
+                failures.add("order " + order.getId() + " (" + order.getOrderNumber() + "): " + e.getMessage());
+            }
+            log.warn("Invoice export could not render orderId={} error={}", order.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderPool.shutdownNow();
+    }
+}
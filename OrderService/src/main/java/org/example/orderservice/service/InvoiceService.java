@@ -0,0 +1,271 @@
+package org.example.orderservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.orderservice.config.InvoiceRenderProperties;
+import org.example.orderservice.dto.OrderItemResponse;
+import org.example.orderservice.dto.OrderResponse;
+import org.example.orderservice.event.OrderPlacedEvent;
+import org.example.orderservice.exception.InvoiceNotReadyException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps rendered invoices on disk keyed by a fingerprint of everything the PDF shows. A download renders only when
+ * no file exists for the current fingerprint; otherwise the stored file is reused. INVOICE_GENERATED is recorded
+ * once per file actually written, whether by a download, a background render or an export, so serving a cached
+ * invoice records nothing.
+ * <p>
+ * New orders are rendered in the background on a small pool once they commit. Downloads jump ahead of queued
+ * background work, and a download whose invoice is already being rendered waits for that render instead of
+ * starting another one.
+ */
+@Service
+public class InvoiceService {
+    private static final Logger log = LoggerFactory.getLogger(InvoiceService.class);
+    /** Bump when the PDF layout changes so previously rendered invoices are not served any more. */
+    private static final String TEMPLATE_VERSION = "2";
+    private static final int ON_DEMAND = 0;
+    private static final int BACKGROUND = 1;
+    private final PDFService pdfService;
+    private final OrderService orderService;
+    private final InvoiceRenderProperties props;
+    private final Path invoiceDirectory;
+    private final ThreadPoolExecutor renderPool;
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Timer renderTimer;
+    private final Counter skippedCounter;
+
+    public InvoiceService(PDFService pdfService,
+                          OrderService orderService,
+                          InvoiceRenderProperties props,
+                          MeterRegistry meterRegistry,
+                          @Value("${invoice.directory:/data/uploads/invoices}") String invoiceDirectory) {
+        this.pdfService = pdfService;
+        this.orderService = orderService;
+        this.props = props;
+        this.invoiceDirectory = Paths.get(invoiceDirectory);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.renderPool = new ThreadPoolExecutor(props.getWorkers(), props.getWorkers(), 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "invoice-render-" + threadIndex.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                });
+        Gauge.builder("invoice.render.queue.size", renderPool, pool -> pool.getQueue().size())
+                .description("Invoice renders waiting for a worker")
+                .register(meterRegistry);
+        this.renderTimer = Timer.builder("invoice.render.duration")
+                .description("Time to render and store one invoice PDF")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("invoice.render.skipped")
+                .description("Background renders not queued because the render queue was full")
+                .register(meterRegistry);
+    }
+
+    public String fingerprint(OrderResponse order) {
+        StringBuilder content = new StringBuilder(256)
+                .append(TEMPLATE_VERSION).append('\n')
+                .append(order.getId()).append('\n')
+                .append(order.getOrderNumber()).append('\n')
+                .append(order.getOrderDate()).append('\n')
+                .append(order.getCustomerId()).append('\n')
+                .append(order.getTotalAmount()).append('\n');
+        if (order.getItems() != null) {
+            for (OrderItemResponse item : order.getItems()) {
+                content.append(item.getProductId()).append(',')
+                        .append(item.getQuantity()).append(',')
+                        .append(item.getPrice()).append(',')
+                        .append(item.getSubtotal()).append('\n');
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Returns the invoice for the given fingerprint. If it is not on disk yet it is rendered ahead of any queued
+     * background work, or the render already in progress is awaited, for at most the configured wait timeout.
+     */
+    public Path getOrRender(OrderResponse order, String fingerprint) {
+        Path target = target(order, fingerprint);
+        if (Files.isRegularFile(target)) {
+            return target;
+        }
+        CompletableFuture<Path> mine = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(fingerprint, mine);
+        if (existing == null) {
+            renderPool.execute(new RenderTask(ON_DEMAND, () -> render(order, fingerprint, mine)));
+        }
+        return await(order, existing == null ? mine : existing);
+    }
+
+    /**
+     * Returns the invoice, rendering it on the calling thread if needed. For callers that bring their own bounded
+     * pool, such as bulk exports; a render already in progress elsewhere is awaited instead of duplicated, for at
+     * most the configured wait timeout.
+     */
+    public Path ensureRendered(OrderResponse order) {
+        String fingerprint = fingerprint(order);
+        Path target = target(order, fingerprint);
+        if (Files.isRegularFile(target)) {
+            return target;
+        }
+        CompletableFuture<Path> mine = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(fingerprint, mine);
+        if (existing != null) {
+            return await(order, existing);
+        }
+        render(order, fingerprint, mine);
+        return await(order, mine);
+    }
+
+    private Path await(OrderResponse order, CompletableFuture<Path> render) {
+        try {
+            return render.get(props.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new InvoiceNotReadyException("Invoice for order " + order.getId() + " is still being generated");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InvoiceNotReadyException("Interrupted while waiting for invoice of order " + order.getId());
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new RuntimeException("Failed to generate invoice PDF", e.getCause());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        if (renderPool.getQueue().size() >= props.getQueueCapacity()) {
+            skippedCounter.increment();
+            return;
+        }
+        renderPool.execute(new RenderTask(BACKGROUND, () -> prerender(event.getOrderId())));
+    }
+
+    private void prerender(Long orderId) {
+        try {
+            OrderResponse order = orderService.getOrderById(orderId);
+            String fingerprint = fingerprint(order);
+            CompletableFuture<Path> mine = new CompletableFuture<>();
+            if (!Files.isRegularFile(target(order, fingerprint)) && inFlight.putIfAbsent(fingerprint, mine) == null) {
+                render(order, fingerprint, mine);
+            }
+        } catch (Exception e) {
+            log.warn("Background invoice render failed orderId={} error={}", orderId, e.getMessage());
+        }
+    }
+
+    private void render(OrderResponse order, String fingerprint, CompletableFuture<Path> result) {
+        try {
+            result.complete(renderTimer.record(() -> renderToDisk(order, fingerprint)));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        } finally {
+            inFlight.remove(fingerprint, result);
+        }
+    }
+
+    private Path renderToDisk(OrderResponse order, String fingerprint) {
+        Path target = target(order, fingerprint);
+        if (Files.isRegularFile(target)) {
+            return target;
+        }
+        try {
+            Files.createDirectories(invoiceDirectory);
+            // render next to the target and move it into place, so readers never see a half written file
+            Path tmp = Files.createTempFile(invoiceDirectory, ".invoice-", ".tmp");
+            try {
+                pdfService.generateInvoicePdf(order, tmp);
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store invoice PDF", e);
+        }
+        orderService.recordInvoiceGenerated(order, target.toString());
+        removeStale(filePrefix(order), target);
+        return target;
+    }
+
+    private void removeStale(String prefix, Path current) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(invoiceDirectory,
+                p -> p.getFileName().toString().startsWith(prefix) && !p.equals(current))) {
+            for (Path stale : files) {
+                Files.deleteIfExists(stale);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to remove stale invoices prefix={} error={}", prefix, e.getMessage());
+        }
+    }
+
+    private Path target(OrderResponse order, String fingerprint) {
+        return invoiceDirectory.resolve(filePrefix(order) + fingerprint + ".pdf");
+    }
+
+    private static String filePrefix(OrderResponse order) {
+        String orderNumber = order.getOrderNumber() == null ? String.valueOf(order.getId()) : order.getOrderNumber();
+        return "invoice_" + orderNumber + "_";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderPool.shutdownNow();
+    }
+
+    /** Orders the render queue by priority, then by submission. */
+    private final class RenderTask implements Runnable, Comparable<RenderTask> {
+        private final int priority;
+        private final long seq = sequence.getAndIncrement();
+        private final Runnable work;
+
+        RenderTask(int priority, Runnable work) {
+            this.priority = priority;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            work.run();
+        }
+
+        @Override
+        public int compareTo(RenderTask other) {
+            int byPriority = Integer.compare(priority, other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(seq, other.seq);
+        }
+    }
+}
@@ -1,20 +1,26 @@
 package org.example.orderservice.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.example.orderservice.dto.OrderItemRequest;
+import org.example.orderservice.event.OrderPlacedEvent;
 import org.example.orderservice.model.EventType;
+import org.example.orderservice.model.Money;
 import org.example.orderservice.model.Order;
 import org.example.orderservice.model.OrderEvent;
-import org.example.orderservice.messaging.OrderEventPublisher;
 import org.example.orderservice.repository.OrderEventRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -23,30 +29,46 @@ import java.util.Map;
 public class OrderEventService {
     private static final Logger log = LoggerFactory.getLogger(OrderEventService.class);
     private final OrderEventRepository eventRepository;
-    private final OrderEventPublisher publisher;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EventBatchProcessor eventBatchProcessor;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    // the application mapper carries the java.time module the payload timestamps need
+    private final ObjectMapper objectMapper;
 
+    /** Fails the caller's transaction if the event cannot be written, so an order never commits without it. */
     public void recordOrderCreated(Order order) {
+        eventRepository.save(orderCreatedEvent(order));
+        log.info("Recorded ORDER_CREATED event orderId={}", order.getId());
+        wakeRelayAfterCommit();
+        applicationEventPublisher.publishEvent(new OrderPlacedEvent(order.getId()));
+    }
+
+    /** Bulk variant of {@link #recordOrderCreated}: one call per chunk of orders and a single relay wake-up. */
+    public void recordOrdersCreated(List<Order> orders) {
+        eventRepository.saveAll(orders.stream().map(this::orderCreatedEvent).toList());
+        log.info("Recorded {} ORDER_CREATED events", orders.size());
+        wakeRelayAfterCommit();
+        orders.forEach(order -> applicationEventPublisher.publishEvent(new OrderPlacedEvent(order.getId())));
+    }
+
+    private OrderEvent orderCreatedEvent(Order order) {
+        Map<String,Object> payload = new HashMap<>();
+        payload.put("orderId", order.getId());
+        payload.put("orderNumber", order.getOrderNumber());
+        payload.put("customerId", order.getCustomerId());
+        payload.put("totalAmount", order.getTotalAmount());
+        payload.put("createdAt", order.getOrderDate());
+        OrderEvent evt = new OrderEvent();
+        evt.setEventType(EventType.ORDER_CREATED);
+        evt.setOrderId(order.getId());
         try {
-            Map<String,Object> payload = new HashMap<>();
-            payload.put("orderId", order.getId());
-            payload.put("orderNumber", order.getOrderNumber());
-            payload.put("customerId", order.getCustomerId());
-            payload.put("totalAmount", order.getTotalAmount());
-            payload.put("createdAt", order.getOrderDate());
-            OrderEvent evt = new OrderEvent();
-            evt.setEventType(EventType.ORDER_CREATED);
-            evt.setOrderId(order.getId());
             evt.setPayload(objectMapper.writeValueAsString(payload));
-            eventRepository.save(evt);
-            log.info("Recorded ORDER_CREATED event orderId={}", order.getId());
-            publisher.publish("order.created", payload);
-        } catch (Exception e) {
-            log.error("Failed to record ORDER_CREATED event: {}", e.getMessage());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize ORDER_CREATED event for order " + order.getId(), e);
         }
+        return evt;
     }
 
-    public void recordInvoiceGenerated(Long orderId, String orderNumber, String pdfPath, BigDecimal total) {
+    public void recordInvoiceGenerated(Long orderId, String orderNumber, String pdfPath, Money total) {
         try {
             Map<String,Object> payload = new HashMap<>();
             payload.put("orderId", orderId);
@@ -60,9 +82,43 @@ public class OrderEventService {
             evt.setPayload(objectMapper.writeValueAsString(payload));
             eventRepository.save(evt);
             log.info("Recorded INVOICE_GENERATED event orderId={}", orderId);
-            publisher.publish("invoice.generated", payload);
+            wakeRelayAfterCommit();
         } catch (Exception e) {
             log.error("Failed to record INVOICE_GENERATED event: {}", e.getMessage());
         }
     }
+
+    /** Queues a stock release for StockReleaseService to retry; unlike the other events it is not relayed. */
+    public void recordStockRelease(String orderNumber, List<OrderItemRequest> items) {
+        Map<String,Object> payload = new HashMap<>();
+        payload.put("orderNumber", orderNumber);
+        payload.put("items", items);
+        OrderEvent evt = new OrderEvent();
+        evt.setEventType(EventType.STOCK_RELEASE);
+        try {
+            evt.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize STOCK_RELEASE event for order " + orderNumber, e);
+        }
+        eventRepository.save(evt);
+        log.info("Recorded STOCK_RELEASE event orderNumber={} lines={}", orderNumber, items.size());
+    }
+
+    // Broker I/O is left to the outbox relay; the request path only inserts the event and nudges the relay
+    private void wakeRelayAfterCommit() {
+        afterCommit(eventBatchProcessor::wakeUp);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
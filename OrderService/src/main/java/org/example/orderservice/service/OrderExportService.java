@@ -0,0 +1,157 @@
+package org.example.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.orderservice.model.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams orders with their items as NDJSON, one order per line. Rows come from a forward-only JDBC cursor
+ * (PostgreSQL only honours the fetch size inside a transaction, hence the read-only one) and each row is written
+ * to the generator as it arrives, so neither the result set nor a whole order is ever held in memory.
+ */
+@Service
+public class OrderExportService {
+    private static final Logger log = LoggerFactory.getLogger(OrderExportService.class);
+    private static final int FLUSH_EVERY_ORDERS = 1000;
+    private static final String EXPORT_SQL = """
+            SELECT o.id, o.order_number, o.order_date, o.total_amount, o.customer_id, o.status,
+                   oi.id AS item_id, oi.product_id, oi.quantity, oi.price, oi.subtotal
+            FROM orders o
+            LEFT JOIN order_items oi ON oi.order_id = o.id AND oi.order_date = o.order_date
+                AND oi.order_date >= ? AND oi.order_date < ?
+            WHERE o.order_date >= ? AND o.order_date < ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+
+    public OrderExportService(DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${order.export.fetch-size:1000}") int fetchSize,
+                              @Value("${order.export.timeout:30m}") Duration timeout) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+    }
+
+    /** How long one export may stream. */
+    public Duration timeout() {
+        return timeout;
+    }
+
+    /** Writes every order placed in [from, to), optionally only those in {@code status}, ordered by id. */
+    public void exportNdjson(LocalDateTime from, LocalDateTime to, OrderStatus status, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(EXPORT_SQL);
+        // both tables get the range so each is pruned to the partitions it covers
+        List<Object> args = new ArrayList<>(List.of(from, to, from, to));
+        if (status != null) {
+            sql.append(" AND o.status = ?");
+            args.add(status.name());
+        }
+        sql.append(" ORDER BY o.id, oi.id");
+
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            NdjsonWriter writer = new NdjsonWriter(gen, out);
+            readOnlyTransaction.executeWithoutResult(tx -> jdbcTemplate.query(sql.toString(), writer, args.toArray()));
+            writer.finish();
+            log.info("Order export finished range={}..{} status={} orders={}", from, to, status, writer.orders);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Rows arrive ordered by order id; a change of id closes the previous order's line. */
+    private static final class NdjsonWriter implements RowCallbackHandler {
+        private final JsonGenerator gen;
+        private final OutputStream out;
+        private long currentOrderId = -1;
+        private long orders;
+
+        NdjsonWriter(JsonGenerator gen, OutputStream out) {
+            this.gen = gen;
+            this.out = out;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                long orderId = rs.getLong("id");
+                if (orderId != currentOrderId) {
+                    endOrder();
+                    startOrder(rs, orderId);
+                }
+                long itemId = rs.getLong("item_id");
+                if (!rs.wasNull()) {
+                    gen.writeStartObject();
+                    gen.writeNumberField("id", itemId);
+                    gen.writeNumberField("productId", rs.getLong("product_id"));
+                    gen.writeNumberField("quantity", rs.getInt("quantity"));
+                    gen.writeNumberField("price", rs.getBigDecimal("price"));
+                    gen.writeNumberField("subtotal", rs.getBigDecimal("subtotal"));
+                    gen.writeEndObject();
+                }
+            } catch (IOException e) {
+                // client went away: abort the query instead of reading the rest of the cursor
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void startOrder(ResultSet rs, long orderId) throws SQLException, IOException {
+            currentOrderId = orderId;
+            gen.writeStartObject();
+            gen.writeNumberField("id", orderId);
+            gen.writeStringField("orderNumber", rs.getString("order_number"));
+            Timestamp orderDate = rs.getTimestamp("order_date");
+            gen.writeStringField("orderDate", orderDate == null ? null : orderDate.toLocalDateTime().toString());
+            gen.writeNumberField("totalAmount", rs.getBigDecimal("total_amount"));
+            gen.writeStringField("customerId", rs.getString("customer_id"));
+            gen.writeStringField("status", rs.getString("status"));
+            gen.writeArrayFieldStart("items");
+        }
+
+        private void endOrder() throws IOException {
+            if (currentOrderId < 0) return;
+            gen.writeEndArray();
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+            // the first line goes out at once, then in chunks so the client sees steady progress
+            if (orders++ % FLUSH_EVERY_ORDERS == 0) {
+                gen.flush();
+                out.flush();
+            }
+        }
+
+        void finish() throws IOException {
+            endOrder();
+            gen.flush();
+            out.flush();
+        }
+    }
+}
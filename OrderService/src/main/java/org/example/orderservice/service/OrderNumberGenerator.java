@@ -0,0 +1,6 @@
+package org.example.orderservice.service;
+
+/** Produces the customer-facing order number for a new order. */
+public interface OrderNumberGenerator {
+    String next();
+}
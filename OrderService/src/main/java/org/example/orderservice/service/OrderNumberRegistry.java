@@ -0,0 +1,40 @@
+package org.example.orderservice.service;
+
+import org.example.orderservice.model.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+
+/**
+ * Claims order numbers in the unpartitioned order_numbers table. A unique key on the partitioned orders table has
+ * to include order_date, so it cannot stop the same number from being used in two months; the primary key here
+ * can. It runs inside the transaction that inserts the orders, so a duplicate rolls the order back with it. Rows
+ * stay when their month is detached, keeping archived numbers reserved.
+ */
+@Service
+public class OrderNumberRegistry {
+    private static final String INSERT = """
+            INSERT INTO order_numbers (order_number, order_id, order_date)
+            VALUES (?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderNumberRegistry(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Orders must already have their ids. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void register(Collection<Order> orders) {
+        jdbcTemplate.batchUpdate(INSERT, orders, orders.size(), (ps, order) -> {
+            ps.setString(1, order.getOrderNumber());
+            ps.setLong(2, order.getId());
+            ps.setTimestamp(3, Timestamp.valueOf(order.getOrderDate()));
+        });
+    }
+}
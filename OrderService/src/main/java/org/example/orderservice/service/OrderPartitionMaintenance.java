@@ -0,0 +1,156 @@
+package org.example.orderservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.orderservice.config.OrderPartitionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the monthly partitions of orders and order_items in shape: partitions for the next
+ * {@code orders.partitions.months-ahead} months are created in advance, and with a retention set, months that fell
+ * out of it are detached. Detached partitions stay in the database as plain tables for archiving or dropping, and
+ * the sales rollups keep their totals. Orders that land in the DEFAULT partition, because their month was not
+ * prepared in time, are counted in {@code orders.partitions.default.rows} and logged, so the lag can be alerted on.
+ * Runs at startup and daily; a session advisory lock keeps several nodes from
+ * doing the same work at once.
+ */
+@Component
+public class OrderPartitionMaintenance implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(OrderPartitionMaintenance.class);
+    private static final long MAINTENANCE_LOCK = 0x5a1e0003L;
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String ATTACHED_PARTITIONS = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = CAST(? AS regclass)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderPartitionProperties props;
+    private final AtomicLong defaultRows = new AtomicLong();
+
+    public OrderPartitionMaintenance(JdbcTemplate jdbcTemplate, OrderPartitionProperties props, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.props = props;
+        Gauge.builder("orders.partitions.default.rows", defaultRows, AtomicLong::get)
+                .description("Orders in the DEFAULT partition as of the last maintenance run; should stay 0")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            // the partitions already exist months ahead, so a failed run is not a reason to refuse to start
+            log.error("Order partition maintenance failed error={}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${orders.partitions.maintenance-cron:0 15 3 * * *}")
+    public void maintain() {
+        jdbcTemplate.execute((Connection connection) -> {
+            if (!tryLock(connection)) {
+                log.debug("Order partition maintenance running elsewhere, skipped");
+                return null;
+            }
+            try {
+                YearMonth current = YearMonth.now();
+                int created = ensurePartitions(connection, current, current.plusMonths(props.getMonthsAhead()));
+                int detached = props.getRetentionMonths() > 0
+                        ? detachBefore(connection, current.minusMonths(props.getRetentionMonths()))
+                        : 0;
+                long unpartitioned = countDefaultRows(connection);
+                defaultRows.set(unpartitioned);
+                if (unpartitioned > 0) {
+                    log.warn("Orders outside the monthly partitions rows={}; check orders_default", unpartitioned);
+                }
+                log.info("Order partition maintenance done created={} detached={}", created, detached);
+            } finally {
+                try (PreparedStatement ps = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                    ps.setLong(1, MAINTENANCE_LOCK);
+                    ps.execute();
+                }
+            }
+            return null;
+        });
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            ps.setLong(1, MAINTENANCE_LOCK);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private int ensurePartitions(Connection connection, YearMonth from, YearMonth to) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT ensure_order_partitions(?, ?)")) {
+            ps.setObject(1, from.atDay(1));
+            ps.setObject(2, to.atDay(1));
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private long countDefaultRows(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM orders_default")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    // items first, so an order partition is never detached while its items are still attached
+    private int detachBefore(Connection connection, YearMonth cutoff) throws SQLException {
+        int detached = 0;
+        for (String parent : List.of("order_items", "orders")) {
+            for (String partition : partitionsBefore(connection, parent, cutoff)) {
+                try (Statement st = connection.createStatement()) {
+                    // not CONCURRENTLY: Postgres refuses that while a DEFAULT partition exists. The plain detach
+                    // locks the parent only for the catalog change, and the daily run is scheduled off-peak
+                    st.execute("ALTER TABLE " + parent + " DETACH PARTITION " + partition);
+                }
+                log.info("Detached partition {} from {}", partition, parent);
+                detached++;
+            }
+        }
+        return detached;
+    }
+
+    private List<String> partitionsBefore(Connection connection, String parent, YearMonth cutoff) throws SQLException {
+        String prefix = parent + "_p";
+        List<String> partitions = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(ATTACHED_PARTITIONS)) {
+            ps.setString(1, parent);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString(1);
+                    if (!name.startsWith(prefix) || name.length() != prefix.length() + 6) continue;
+                    YearMonth month = YearMonth.parse(name.substring(prefix.length()), SUFFIX);
+                    if (month.isBefore(cutoff)) partitions.add(name);
+                }
+            }
+        }
+        return partitions;
+    }
+}
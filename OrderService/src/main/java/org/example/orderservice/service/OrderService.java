@@ -1,105 +1,209 @@
 package org.example.orderservice.service;
 
-import jakarta.transaction.Transactional;
+import org.example.orderservice.client.InventoryClient;
+import org.example.orderservice.config.CacheConfig;
 import org.example.orderservice.dto.OrderItemRequest;
 import org.example.orderservice.dto.OrderItemResponse;
+import org.example.orderservice.dto.OrderPageResponse;
 import org.example.orderservice.dto.OrderRequest;
 import org.example.orderservice.dto.OrderResponse;
+import org.example.orderservice.dto.OrderSearchCriteria;
+import org.example.orderservice.dto.ReservedItemResponse;
+import org.example.orderservice.dto.StockReservationResponse;
 import org.example.orderservice.exception.InvalidOrderException;
 import org.example.orderservice.exception.OrderNotFoundException;
+import org.example.orderservice.jfr.OrderCreationEvent;
+import org.example.orderservice.jfr.OrderCreationPhaseEvent;
 import org.example.orderservice.model.Order;
 import org.example.orderservice.model.OrderItem;
 import org.example.orderservice.model.OrderStatus;
 import org.example.orderservice.repository.OrderRepository;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
-@Transactional
 public class OrderService {
+    private static final int MAX_PAGE_SIZE = 200;
     private final OrderRepository orderRepository;
-    private final RestTemplate restTemplate;
-    private final String inventoryBaseUrl;
+    private final InventoryClient inventoryClient;
     private final OrderEventService orderEventService;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final SalesRollupService salesRollupService;
+    private final OrderNumberRegistry orderNumberRegistry;
+    private final StockReleaseService stockReleaseService;
 
     public OrderService(OrderRepository orderRepository,
-                        RestTemplate restTemplate,
-                        @Value("${inventory.base-url}") String inventoryBaseUrl,
-                        OrderEventService orderEventService) {
+                        InventoryClient inventoryClient,
+                        OrderEventService orderEventService,
+                        TransactionTemplate transactionTemplate,
+                        OrderNumberGenerator orderNumberGenerator,
+                        SalesRollupService salesRollupService,
+                        OrderNumberRegistry orderNumberRegistry,
+                        StockReleaseService stockReleaseService) {
         this.orderRepository = orderRepository;
-        this.restTemplate = restTemplate;
-        this.inventoryBaseUrl = inventoryBaseUrl;
+        this.inventoryClient = inventoryClient;
         this.orderEventService = orderEventService;
+        this.transactionTemplate = transactionTemplate;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.salesRollupService = salesRollupService;
+        this.orderNumberRegistry = orderNumberRegistry;
+        this.stockReleaseService = stockReleaseService;
     }
 
     public OrderResponse createOrder(OrderRequest orderRequest) {
+        return createOrder(orderRequest, response -> { });
+    }
+
+    /**
+     * Creates an order in two phases so no database connection is held across remote calls: stock is reserved and
+     * priced first, then the order rows and the outbox event are written in one short transaction. If that write
+     * fails the reservation is released again. {@code inTransaction} gets the response inside that transaction, so
+     * whatever it writes commits or rolls back together with the order.
+     */
+    public OrderResponse createOrder(OrderRequest orderRequest, Consumer<OrderResponse> inTransaction) {
         if (orderRequest.getItems() == null || orderRequest.getItems().isEmpty()) {
             throw new InvalidOrderException("Order must contain at least one item");
         }
 
+        OrderCreationEvent creation = new OrderCreationEvent();
+        creation.begin();
         Order order = new Order();
-        order.setOrderNumber(generateOrderNumber());
+        order.setOrderNumber(orderNumberGenerator.next());
         order.setCustomerId(orderRequest.getCustomerId());
         order.setStatus(OrderStatus.PENDING);
+        creation.orderNumber = order.getOrderNumber();
+        creation.itemCount = orderRequest.getItems().size();
+        try {
+            OrderCreationPhaseEvent reserve = new OrderCreationPhaseEvent(order.getOrderNumber(), OrderCreationPhaseEvent.RESERVE_STOCK);
+            reserve.begin();
+            StockReservationResponse reservation;
+            try {
+                reservation = inventoryClient.reserveStock(orderRequest.getItems());
+                reserve.succeeded = true;
+            } finally {
+                reserve.commit();
+            }
+            for (ReservedItemResponse reserved : reservation.getItems()) {
+                OrderItem item = new OrderItem(
+                        reserved.getProductId(),
+                        reserved.getQuantity(),
+                        reserved.getPrice()
+                );
+                order.addItem(item);
+            }
 
-        for (OrderItemRequest itemRequest : orderRequest.getItems()) {
-            BigDecimal price = decrementStockAndGetPrice(itemRequest.getProductId(), itemRequest.getQuantity());
-            OrderItem item = new OrderItem(
-                    itemRequest.getProductId(),
-                    itemRequest.getQuantity(),
-                    price
-            );
-            order.addItem(item);
+            OrderResponse response;
+            OrderCreationPhaseEvent persist = new OrderCreationPhaseEvent(order.getOrderNumber(), OrderCreationPhaseEvent.PERSIST);
+            persist.begin();
+            try {
+                response = transactionTemplate.execute(status -> {
+                    Order saved = orderRepository.save(order);
+                    orderNumberRegistry.register(List.of(saved));
+                    orderEventService.recordOrderCreated(saved);
+                    salesRollupService.recordPlaced(List.of(saved));
+                    OrderResponse created = convertToResponse(saved);
+                    inTransaction.accept(created);
+                    return created;
+                });
+                persist.succeeded = true;
+            } catch (RuntimeException e) {
+                persist.commit();
+                releaseStock(order.getOrderNumber(), orderRequest.getItems());
+                throw e;
+            }
+            persist.commit();
+            creation.succeeded = true;
+            return response;
+        } finally {
+            creation.commit();
         }
-
-        Order savedOrder = orderRepository.save(order);
-        orderEventService.recordOrderCreated(savedOrder);
-        return convertToResponse(savedOrder);
     }
 
-    private BigDecimal decrementStockAndGetPrice(Long productId, int qty) {
+    private void releaseStock(String orderNumber, List<OrderItemRequest> items) {
+        OrderCreationPhaseEvent release = new OrderCreationPhaseEvent(orderNumber, OrderCreationPhaseEvent.RELEASE_STOCK);
+        release.begin();
         try {
-            String url = inventoryBaseUrl + "/api/products/{id}/decrement?qty={qty}";
-            ResponseEntity<Map> res = restTemplate.postForEntity(url, null, Map.class, productId, qty);
-            if (res.getStatusCode().is2xxSuccessful() && res.getBody() != null) {
-                Object priceObj = res.getBody().get("price");
-                if (priceObj != null) return new BigDecimal(priceObj.toString());
-            }
-            throw new InvalidOrderException("Could not obtain price for product " + productId);
-        } catch (HttpClientErrorException e) {
-            String msg = e.getResponseBodyAsString();
-            throw new InvalidOrderException("Failed to reserve stock for product " + productId + ": " + msg);
+            release.succeeded = stockReleaseService.release(orderNumber, items);
+        } finally {
+            release.commit();
         }
     }
 
+    @Cacheable(cacheNames = CacheConfig.ORDERS, key = "#id")
+    @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long id) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new OrderNotFoundException(id));
         return convertToResponse(order);
     }
 
-    public List<OrderResponse> getOrdersByCustomer(String customerId) {
-        List<Order> orders = orderRepository.findByCustomerId(customerId);
-        return orders.stream()
+    /** One keyset page of orders in [from, to), ordered by id and loaded together with their items. */
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getOrdersPage(LocalDateTime from, LocalDateTime to, long afterId, int limit) {
+        List<Long> ids = orderRepository.findIdsByOrderDateRange(from, to, afterId, PageRequest.of(0, limit));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return orderRepository.findWithItemsByIdIn(ids).stream()
+                .sorted(Comparator.comparing(Order::getId))
                 .map(this::convertToResponse)
                 .toList();
     }
 
-    public List<OrderResponse> getOrdersByStatus(OrderStatus status) {
-        List<Order> orders = orderRepository.findByStatus(status);
-        return orders.stream()
+    /**
+     * One page of orders matching {@code criteria}, newest first. Paging is by keyset on (orderDate, id), so a page
+     * costs two queries however deep it is: one for the matching ids and one for those orders with their items.
+     */
+    @Transactional(readOnly = true)
+    public OrderPageResponse searchOrders(OrderSearchCriteria criteria, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime afterOrderDate = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            afterOrderDate = LocalDateTime.parse(position[0]);
+            afterId = Long.valueOf(position[1]);
+        }
+        // one extra row tells whether another page follows without a COUNT
+        List<Long> ids = orderRepository.searchIds(criteria, afterOrderDate, afterId, pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+        if (pageIds.isEmpty()) {
+            return new OrderPageResponse(List.of(), null);
+        }
+        Map<Long, Order> byId = orderRepository.findWithItemsByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        List<OrderResponse> orders = pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .map(this::convertToResponse)
                 .toList();
+        String nextCursor = null;
+        if (hasMore && !orders.isEmpty()) {
+            OrderResponse last = orders.get(orders.size() - 1);
+            nextCursor = encodeCursor(last.getOrderDate(), last.getId());
+        }
+        return new OrderPageResponse(orders, nextCursor);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.ORDERS, key = "#id")
+    @Transactional
     public void cancelOrder(Long id) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new OrderNotFoundException(id));
@@ -110,12 +214,28 @@ public class OrderService {
 
         order.setStatus(OrderStatus.CANCELLED);
         orderRepository.save(order);
+        salesRollupService.recordCancelled(order);
     }
 
-    private String generateOrderNumber() {
-        return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+
+    private static String encodeCursor(LocalDateTime orderDate, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((orderDate + "|" + id).getBytes(StandardCharsets.UTF_8));
     }
 
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("expected two fields");
+            }
+            LocalDateTime.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (RuntimeException e) {
+            throw new InvalidOrderException("Invalid cursor");
+        }
+    }
 
     public void recordInvoiceGenerated(OrderResponse orderResponse, String pdfPath) {
         orderEventService.recordInvoiceGenerated(orderResponse.getId(), orderResponse.getOrderNumber(), pdfPath, orderResponse.getTotalAmount());
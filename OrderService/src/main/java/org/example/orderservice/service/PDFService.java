@@ -1,105 +1,167 @@
 package org.example.orderservice.service;
 
 import com.itextpdf.text.*;
+import com.itextpdf.text.pdf.BaseFont;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
+import org.example.orderservice.dto.OrderItemResponse;
 import org.example.orderservice.dto.OrderResponse;
+import org.example.orderservice.jfr.InvoiceRenderEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.format.DateTimeFormatter;
 
+/**
+ * Renders invoices from a template compiled once at startup: fonts, the styled header row and the table layout
+ * are built in the constructor and only the order data is laid out per call. iText copies cells added to a
+ * table, so the shared template objects are never mutated and one instance serves concurrent renders.
+ * <p>
+ * By default the standard Helvetica fonts are referenced, not embedded. If {@code invoice.pdf.font-path} points to
+ * a TrueType font it is embedded instead, subset to the glyphs an invoice actually uses, together with
+ * {@code invoice.pdf.bold-font-path} for headings and totals. Without a bold face the regular one is emboldened.
+ */
 @Service
 public class PDFService {
 
     private static final Logger log = LoggerFactory.getLogger(PDFService.class);
-
-    @Value("${invoice.directory:/data/uploads/invoices}")
-    private String invoiceDirectory;
-
-    public String generateInvoicePdf(OrderResponse order) {
+    private static final DateTimeFormatter ORDER_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String[] HEADERS = {"Product ID", "Quantity", "Unit Price", "Line Total"};
+
+    private final boolean fullCompression;
+    private final int compressionLevel;
+    private final Font titleFont;
+    private final Font detailsFont;
+    private final Font tableFont;
+    private final Font totalFont;
+    private final PdfPCell[] headerCells;
+
+    public PDFService(@Value("${invoice.pdf.full-compression:true}") boolean fullCompression,
+                      @Value("${invoice.pdf.compression-level:-1}") int compressionLevel,
+                      @Value("${invoice.pdf.font-path:}") String fontPath,
+                      @Value("${invoice.pdf.bold-font-path:}") String boldFontPath) {
+        this.fullCompression = fullCompression;
+        this.compressionLevel = compressionLevel;
+        BaseFont regular;
+        BaseFont bold;
+        // applied to the bold fonts when there is no bold face to embed
+        int boldStyle = Font.NORMAL;
         try {
-            File dir = new File(invoiceDirectory);
-            if (!dir.exists()) {
-                dir.mkdirs();
+            if (StringUtils.hasText(fontPath)) {
+                // embedded fonts are subset by default, so only the used glyphs end up in the file
+                regular = BaseFont.createFont(fontPath, BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
+                if (StringUtils.hasText(boldFontPath)) {
+                    bold = BaseFont.createFont(boldFontPath, BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
+                } else {
+                    bold = regular;
+                    boldStyle = Font.BOLD;
+                }
+            } else {
+                regular = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+                bold = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
             }
+        } catch (DocumentException | IOException e) {
+            throw new IllegalStateException("Failed to load invoice fonts", e);
+        }
+        this.titleFont = new Font(bold, 18, boldStyle, BaseColor.BLACK);
+        this.detailsFont = new Font(regular, 12, Font.NORMAL, BaseColor.BLACK);
+        this.tableFont = new Font(regular, 11, Font.NORMAL, BaseColor.BLACK);
+        this.totalFont = new Font(bold, 14, boldStyle, BaseColor.BLACK);
+        Font tableHeaderFont = new Font(bold, 12, boldStyle, BaseColor.WHITE);
+        this.headerCells = new PdfPCell[HEADERS.length];
+        for (int i = 0; i < HEADERS.length; i++) {
+            PdfPCell cell = new PdfPCell(new Phrase(HEADERS[i], tableHeaderFont));
+            cell.setBackgroundColor(BaseColor.DARK_GRAY);
+            headerCells[i] = cell;
+        }
+    }
+
+    public void generateInvoicePdf(OrderResponse order, Path target) {
+        try (OutputStream out = Files.newOutputStream(target)) {
+            render(order, out);
+            log.info("Invoice PDF generated: {}", target);
+        } catch (IOException e) {
+            log.error("Error generating PDF invoice: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to generate invoice PDF", e);
+        }
+    }
 
-            String orderNumber = order.getOrderNumber() == null ? String.valueOf(order.getId()) : order.getOrderNumber();
-            String fileName = "invoice_" + orderNumber + ".pdf";
-            String filePath = invoiceDirectory + File.separator + fileName;
+    public byte[] render(OrderResponse order) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 * 1024);
+        render(order, out);
+        return out.toByteArray();
+    }
 
-            Document document = new Document();
-            PdfWriter.getInstance(document, new FileOutputStream(filePath));
+    /** Writes the invoice to {@code out}. The stream is left open for the caller to close. */
+    public void render(OrderResponse order, OutputStream out) {
+        String orderNumber = order.getOrderNumber() == null ? String.valueOf(order.getId()) : order.getOrderNumber();
+        InvoiceRenderEvent event = new InvoiceRenderEvent();
+        event.begin();
+        event.orderNumber = orderNumber;
+        event.itemCount = order.getItems() == null ? 0 : order.getItems().size();
+        Document document = new Document();
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            writer.setCompressionLevel(compressionLevel);
+            if (fullCompression) {
+                writer.setFullCompression();
+            }
             document.open();
 
-            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, BaseColor.BLACK);
             Paragraph title = new Paragraph("INVOICE", titleFont);
             title.setAlignment(Element.ALIGN_CENTER);
             document.add(title);
 
             document.add(Chunk.NEWLINE);
 
-            Font detailsFont = FontFactory.getFont(FontFactory.HELVETICA, 12, BaseColor.BLACK);
             document.add(new Paragraph("Invoice Number: " + orderNumber, detailsFont));
             if (order.getOrderDate() != null) {
-                document.add(new Paragraph("Order Date: " +
-                        order.getOrderDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")), detailsFont));
+                document.add(new Paragraph("Order Date: " + order.getOrderDate().format(ORDER_DATE_FORMAT), detailsFont));
             }
             document.add(new Paragraph("Customer ID: " + order.getCustomerId(), detailsFont));
 
             document.add(Chunk.NEWLINE);
 
-            PdfPTable table = new PdfPTable(4);
+            PdfPTable table = new PdfPTable(HEADERS.length);
             table.setWidthPercentage(100);
             table.setSpacingBefore(10f);
             table.setSpacingAfter(10f);
-
-            Font tableHeaderFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.WHITE);
-            PdfPCell header1 = new PdfPCell(new Phrase("Product ID", tableHeaderFont));
-            PdfPCell header2 = new PdfPCell(new Phrase("Quantity", tableHeaderFont));
-            PdfPCell header3 = new PdfPCell(new Phrase("Unit Price", tableHeaderFont));
-            PdfPCell header4 = new PdfPCell(new Phrase("Line Total", tableHeaderFont));
-
-            header1.setBackgroundColor(BaseColor.DARK_GRAY);
-            header2.setBackgroundColor(BaseColor.DARK_GRAY);
-            header3.setBackgroundColor(BaseColor.DARK_GRAY);
-            header4.setBackgroundColor(BaseColor.DARK_GRAY);
-
-            table.addCell(header1);
-            table.addCell(header2);
-            table.addCell(header3);
-            table.addCell(header4);
-
-            Font tableFont = FontFactory.getFont(FontFactory.HELVETICA, 11, BaseColor.BLACK);
+            table.setHeaderRows(1);
+            for (PdfPCell header : headerCells) {
+                table.addCell(header);
+            }
             if (order.getItems() != null) {
-                order.getItems().forEach(item -> {
+                for (OrderItemResponse item : order.getItems()) {
                     table.addCell(new Phrase(String.valueOf(item.getProductId()), tableFont));
                     table.addCell(new Phrase(String.valueOf(item.getQuantity()), tableFont));
                     table.addCell(new Phrase("$" + item.getPrice(), tableFont));
                     table.addCell(new Phrase("$" + item.getSubtotal(), tableFont));
-                });
+                }
             }
-
             document.add(table);
 
-            Font totalFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14, BaseColor.BLACK);
             Paragraph total = new Paragraph("Total Amount: $" + order.getTotalAmount(), totalFont);
             total.setAlignment(Element.ALIGN_RIGHT);
             document.add(total);
-
-            document.close();
-
-            log.info("Invoice PDF generated: {}", filePath);
-            return filePath;
-
-        } catch (Exception e) {
-            log.error("Error generating PDF invoice: {}", e.getMessage(), e);
+            event.succeeded = true;
+        } catch (DocumentException e) {
             throw new RuntimeException("Failed to generate invoice PDF", e);
+        } finally {
+            if (document.isOpen()) {
+                // closing writes the body and trailer, so it belongs to the render
+                document.close();
+            }
+            event.commit();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package org.example.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.example.orderservice.repository.OrderRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes the internal sales reports as a JSON array of row objects, either as text or as Smile. Rows are read from
+ * the rollup queries through a cursor and written to the generator one at a time, so no report is ever held in
+ * memory. Smile sends repeated field names as back-references and numbers in binary, which makes it a fraction of
+ * the size of the JSON and cheaper to produce and parse.
+ */
+@Service
+public class SalesReportService {
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonFactory jsonFactory;
+    private final SmileFactory smileFactory = SmileFactory.builder().build();
+
+    public SalesReportService(OrderRepository orderRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public void writeMonthlySales(int year, boolean smile, OutputStream out) throws IOException {
+        write(smile, out, () -> orderRepository.monthlySales(year), (gen, row) -> {
+            gen.writeNumberField("year", row.getYear());
+            gen.writeNumberField("month", row.getMonth());
+            gen.writeNumberField("totalSales", row.getTotalSales());
+            gen.writeNumberField("orderCount", row.getOrderCount());
+            gen.writeNumberField("avgOrderValue", row.getAvgOrderValue());
+        });
+    }
+
+    public void writeTopProducts(int year, int limit, boolean smile, OutputStream out) throws IOException {
+        write(smile, out, () -> orderRepository.topProducts(year, limit), (gen, row) -> {
+            gen.writeNumberField("productId", row.getProductId());
+            gen.writeNumberField("totalQuantity", row.getTotalQuantity());
+            gen.writeNumberField("totalRevenue", row.getTotalRevenue());
+        });
+    }
+
+    private <T> void write(boolean smile, OutputStream out, Supplier<Stream<T>> rows, RowWriter<T> fields) throws IOException {
+        JsonFactory factory = smile ? smileFactory : jsonFactory;
+        try (JsonGenerator gen = factory.createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.writeStartArray();
+            readOnlyTransaction.executeWithoutResult(tx -> {
+                try (Stream<T> stream = rows.get()) {
+                    long[] written = {0};
+                    stream.forEach(row -> {
+                        try {
+                            gen.writeStartObject();
+                            fields.write(gen, row);
+                            gen.writeEndObject();
+                            if (++written[0] % FLUSH_EVERY_ROWS == 0) gen.flush();
+                        } catch (IOException e) {
+                            // client went away: stop reading the cursor
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            });
+            gen.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(JsonGenerator gen, T row) throws IOException;
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.orderservice.service;
+
+import org.example.orderservice.config.SalesRollupProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Rebuilds the sales rollups from the order history. Daily totals are recomputed one month per transaction and
+ * product totals one year per transaction, each with a range scan on order_date, and the periods are processed in
+ * parallel. A period is locked exclusively while it is rebuilt (see {@link SalesRollupService}), so the backfill can
+ * run while orders are being taken.
+ */
+@Component
+public class SalesRollupBackfill implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupBackfill.class);
+    private static final String REBUILD_DAILY = """
+            INSERT INTO daily_sales (sales_date, slot, order_count, total_sales)
+            SELECT CAST(o.order_date AS date), 0, COUNT(*), COALESCE(SUM(o.total_amount), 0)
+            FROM orders o
+            WHERE o.order_date >= ? AND o.order_date < ? AND o.status <> 'CANCELLED'
+            GROUP BY CAST(o.order_date AS date)
+            """;
+    private static final String REBUILD_PRODUCTS = """
+            INSERT INTO product_sales (sales_year, product_id, slot, quantity, revenue)
+            SELECT ?, oi.product_id, 0, SUM(oi.quantity), COALESCE(SUM(oi.subtotal), 0)
+            FROM orders o
+            JOIN order_items oi ON oi.order_id = o.id AND oi.order_date = o.order_date
+            WHERE o.order_date >= ? AND o.order_date < ? AND o.status <> 'CANCELLED'
+              AND oi.order_date >= ? AND oi.order_date < ?
+            GROUP BY oi.product_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SalesRollupProperties props;
+
+    public SalesRollupBackfill(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               SalesRollupProperties props) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.props = props;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!props.isBackfillOnStartup()) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                backfill();
+            } catch (RuntimeException e) {
+                log.error("Sales rollup backfill failed error={}", e.getMessage(), e);
+            }
+        }, "sales-rollup-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Rebuilds every month between the first and the last order. */
+    public void backfill() {
+        Timestamp[] range = jdbcTemplate.queryForObject("SELECT MIN(order_date), MAX(order_date) FROM orders",
+                (rs, rowNum) -> new Timestamp[]{rs.getTimestamp(1), rs.getTimestamp(2)});
+        if (range == null || range[0] == null) {
+            log.info("Sales rollup backfill skipped, no orders");
+            return;
+        }
+        backfill(YearMonth.from(range[0].toLocalDateTime()), YearMonth.from(range[1].toLocalDateTime()));
+    }
+
+    /**
+     * Rebuilds the months {@code from} to {@code to}, both inclusive. Product totals are kept per year, so every
+     * year the range touches is rebuilt whole.
+     */
+    public void backfill(YearMonth from, YearMonth to) {
+        long start = System.nanoTime();
+        List<Runnable> tasks = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            YearMonth m = month;
+            tasks.add(() -> rebuildMonth(m));
+        }
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            int y = year;
+            tasks.add(() -> rebuildYear(y));
+        }
+        runAll(tasks);
+        log.info("Sales rollup backfill done from={} to={} tookMs={}", from, to, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void rebuildMonth(YearMonth month) {
+        LocalDate first = month.atDay(1);
+        LocalDate next = month.plusMonths(1).atDay(1);
+        transactionTemplate.executeWithoutResult(status -> {
+            SalesRollupService.lock(jdbcTemplate, false, SalesRollupService.DAILY_SALES_LOCK, SalesRollupService.monthKey(month));
+            jdbcTemplate.update("DELETE FROM daily_sales WHERE sales_date >= ? AND sales_date < ?", first, next);
+            jdbcTemplate.update(REBUILD_DAILY, first.atStartOfDay(), next.atStartOfDay());
+        });
+        log.debug("Sales rollup rebuilt month={}", month);
+    }
+
+    private void rebuildYear(int year) {
+        LocalDate first = LocalDate.of(year, 1, 1);
+        LocalDate next = first.plusYears(1);
+        transactionTemplate.executeWithoutResult(status -> {
+            SalesRollupService.lock(jdbcTemplate, false, SalesRollupService.PRODUCT_SALES_LOCK, year);
+            jdbcTemplate.update("DELETE FROM product_sales WHERE sales_year = ?", year);
+            jdbcTemplate.update(REBUILD_PRODUCTS, year, first.atStartOfDay(), next.atStartOfDay(),
+                    first.atStartOfDay(), next.atStartOfDay());
+        });
+        log.debug("Sales rollup rebuilt products year={}", year);
+    }
+
+    private void runAll(List<Runnable> tasks) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, props.getBackfillWorkers()));
+        try {
+            List<Future<?>> futures = tasks.stream().<Future<?>>map(pool::submit).toList();
+            RuntimeException failure = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) failure = new IllegalStateException("Sales rollup backfill failed", e.getCause());
+                    else failure.addSuppressed(e.getCause());
+                }
+            }
+            if (failure != null) throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sales rollup backfill interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
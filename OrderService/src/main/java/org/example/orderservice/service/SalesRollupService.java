@@ -0,0 +1,140 @@
+package org.example.orderservice.service;
+
+import org.example.orderservice.config.SalesRollupProperties;
+import org.example.orderservice.model.Money;
+import org.example.orderservice.model.Order;
+import org.example.orderservice.model.OrderItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps the sales rollups in step with the orders they summarise. It runs inside the transaction that creates or
+ * cancels the orders, so a rolled back order never shows up in a report. Cancelled orders are not counted.
+ * Every period a writer touches is held with a shared advisory lock until commit; {@link SalesRollupBackfill} takes
+ * the same lock exclusively while it rebuilds a period, so live updates and a rebuild never overlap.
+ */
+@Service
+public class SalesRollupService {
+    /** Advisory lock namespace for daily_sales, keyed by yyyymm. */
+    static final int DAILY_SALES_LOCK = 0x5a1e0001;
+    /** Advisory lock namespace for product_sales, keyed by year. */
+    static final int PRODUCT_SALES_LOCK = 0x5a1e0002;
+
+    private static final String UPSERT_DAILY = """
+            INSERT INTO daily_sales (sales_date, slot, order_count, total_sales)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (sales_date, slot) DO UPDATE
+            SET order_count = daily_sales.order_count + EXCLUDED.order_count,
+                total_sales = daily_sales.total_sales + EXCLUDED.total_sales
+            """;
+    private static final String UPSERT_PRODUCT = """
+            INSERT INTO product_sales (sales_year, product_id, slot, quantity, revenue)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (sales_year, product_id, slot) DO UPDATE
+            SET quantity = product_sales.quantity + EXCLUDED.quantity,
+                revenue = product_sales.revenue + EXCLUDED.revenue
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SalesRollupProperties props;
+
+    public SalesRollupService(JdbcTemplate jdbcTemplate, SalesRollupProperties props) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.props = props;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPlaced(Collection<Order> orders) {
+        apply(orders, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCancelled(Order order) {
+        apply(List.of(order), -1);
+    }
+
+    private void apply(Collection<Order> orders, int sign) {
+        // sorted so concurrent writers always take row locks in the same order
+        Map<LocalDate, Totals> days = new TreeMap<>();
+        for (Order order : orders) {
+            days.computeIfAbsent(order.getOrderDate().toLocalDate(), d -> new Totals()).add(order.getTotalAmount());
+        }
+        days.keySet().stream()
+                .map(YearMonth::from)
+                .distinct()
+                .forEach(month -> lock(jdbcTemplate, true, DAILY_SALES_LOCK, monthKey(month)));
+        int slot = ThreadLocalRandom.current().nextInt(Math.max(1, props.getStripes()));
+        List<Map.Entry<LocalDate, Totals>> rows = new ArrayList<>(days.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_DAILY, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, row.getKey());
+            ps.setInt(2, slot);
+            ps.setLong(3, sign * row.getValue().count);
+            ps.setBigDecimal(4, row.getValue().amount.times(sign).toBigDecimal());
+        });
+
+        Map<ProductYear, Totals> products = new TreeMap<>();
+        for (Order order : orders) {
+            int year = order.getOrderDate().getYear();
+            for (OrderItem item : order.getItems()) {
+                products.computeIfAbsent(new ProductYear(year, item.getProductId()), k -> new Totals())
+                        .add(item.getQuantity(), item.getSubtotal());
+            }
+        }
+        products.keySet().stream()
+                .map(ProductYear::year)
+                .distinct()
+                .forEach(year -> lock(jdbcTemplate, true, PRODUCT_SALES_LOCK, year));
+        List<Map.Entry<ProductYear, Totals>> productRows = new ArrayList<>(products.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_PRODUCT, productRows, productRows.size(), (ps, row) -> {
+            ps.setInt(1, row.getKey().year());
+            ps.setLong(2, row.getKey().productId());
+            ps.setInt(3, slot);
+            ps.setLong(4, sign * row.getValue().count);
+            ps.setBigDecimal(5, row.getValue().amount.times(sign).toBigDecimal());
+        });
+    }
+
+    static int monthKey(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    /** Takes a transaction-scoped advisory lock; released automatically on commit or rollback. */
+    static void lock(JdbcTemplate jdbcTemplate, boolean shared, int namespace, int key) {
+        String sql = shared ? "SELECT pg_advisory_xact_lock_shared(?, ?)" : "SELECT pg_advisory_xact_lock(?, ?)";
+        jdbcTemplate.query(sql, rs -> null, namespace, key);
+    }
+
+    private record ProductYear(int year, long productId) implements Comparable<ProductYear> {
+        @Override
+        public int compareTo(ProductYear other) {
+            int byYear = Integer.compare(year, other.year);
+            return byYear != 0 ? byYear : Long.compare(productId, other.productId);
+        }
+    }
+
+    /** Orders and amount for a day, or units and revenue for a product. */
+    private static final class Totals {
+        private long count;
+        private Money amount = Money.ZERO;
+
+        void add(Money orderTotal) {
+            add(1, orderTotal);
+        }
+
+        void add(long n, Money value) {
+            count += n;
+            if (value != null) amount = amount.plus(value);
+        }
+    }
+}
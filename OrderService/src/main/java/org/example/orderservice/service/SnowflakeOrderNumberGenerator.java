@@ -0,0 +1,102 @@
+package org.example.orderservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style order numbers: 41 bits of milliseconds since 2024-01-01, a 10 bit node id and a 12 bit
+ * sequence, written as 13 Crockford base32 characters after {@code ORD-}. Numbers from one node are strictly
+ * increasing and sort by creation time as plain strings, so inserts land at the right edge of the order number
+ * index instead of scattering across it.
+ * <p>
+ * Timestamp and sequence share one {@link AtomicLong} advanced by CAS, so the hot path takes no lock. More than
+ * 4096 numbers in one millisecond, or a clock that steps back, borrow from the next millisecond instead of
+ * blocking or repeating.
+ * <p>
+ * Uniqueness across instances rests on each one having its own node id, so {@code order-number.node-id} must be
+ * assigned explicitly per instance (e.g. from the pod ordinal); startup fails without it.
+ */
+@Component
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+    private static final Logger log = LoggerFactory.getLogger(SnowflakeOrderNumberGenerator.class);
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final String PREFIX = "ORD-";
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+    // (millis since epoch << SEQUENCE_BITS) | sequence of the last number handed out
+    private final AtomicLong state = new AtomicLong();
+
+    @Autowired
+    public SnowflakeOrderNumberGenerator(@Value("${order-number.node-id}") long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeOrderNumberGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("order-number.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+        log.info("Order numbers use node id {}", nodeId);
+    }
+
+    @Override
+    public String next() {
+        long id = nextId();
+        char[] chars = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = CROCKFORD[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * The time encoded in an order number from this generator, or empty for numbers in any other format. Lets a
+     * lookup by number be narrowed to the orders placed around that time.
+     */
+    public static Optional<Instant> issuedAt(String orderNumber) {
+        if (orderNumber == null || orderNumber.length() != PREFIX.length() + ENCODED_LENGTH || !orderNumber.startsWith(PREFIX)) {
+            return Optional.empty();
+        }
+        long id = 0;
+        for (int i = PREFIX.length(); i < orderNumber.length(); i++) {
+            int digit = Arrays.binarySearch(CROCKFORD, orderNumber.charAt(i));
+            if (digit < 0) {
+                return Optional.empty();
+            }
+            id = (id << 5) | digit;
+        }
+        return Optional.of(Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS));
+    }
+
+    long nextId() {
+        long prev;
+        long next;
+        do {
+            prev = state.get();
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            // a sequence overflow carries into the timestamp, keeping numbers unique and ordered
+            next = now > (prev >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : prev + 1;
+        } while (!state.compareAndSet(prev, next));
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+    }
+}
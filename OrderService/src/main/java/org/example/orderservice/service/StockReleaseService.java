@@ -0,0 +1,140 @@
+package org.example.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.orderservice.client.InventoryClient;
+import org.example.orderservice.dto.OrderItemRequest;
+import org.example.orderservice.exception.InvalidOrderException;
+import org.example.orderservice.model.OrderEvent;
+import org.example.orderservice.repository.OrderEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Gives reserved stock back to InventoryService when an order could not be stored. A release that fails is not
+ * dropped: it is written to the outbox as a STOCK_RELEASE event and retried from there until InventoryService
+ * accepts it. Each retry waits as long as the release has been pending, between {@link #MIN_BACKOFF} and
+ * {@link #MAX_BACKOFF}, so a short outage is retried quickly and a long one is not hammered. Pending releases are
+ * claimed with {@code FOR UPDATE SKIP LOCKED}, so any node can retry them. A release InventoryService rejects as
+ * invalid, or one still failing after {@code orders.stock-release.max-attempts}, is marked failed and left for an
+ * operator; InventoryService ignores repeats of a release, so replaying one is safe.
+ */
+@Service
+public class StockReleaseService {
+    private static final Logger log = LoggerFactory.getLogger(StockReleaseService.class);
+    private static final Duration MIN_BACKOFF = Duration.ofSeconds(5);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+    private static final int RETRY_BATCH = 50;
+
+    private final InventoryClient inventoryClient;
+    private final OrderEventService orderEventService;
+    private final OrderEventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int maxAttempts;
+    private final Counter queuedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    public StockReleaseService(InventoryClient inventoryClient,
+                               OrderEventService orderEventService,
+                               OrderEventRepository eventRepository,
+                               TransactionTemplate transactionTemplate,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${orders.stock-release.max-attempts:20}") int maxAttempts) {
+        this.inventoryClient = inventoryClient;
+        this.orderEventService = orderEventService;
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.maxAttempts = maxAttempts;
+        this.queuedCounter = Counter.builder("orders.stock.release").tag("outcome", "queued").register(meterRegistry);
+        this.retriedCounter = Counter.builder("orders.stock.release").tag("outcome", "retried").register(meterRegistry);
+        this.failedCounter = Counter.builder("orders.stock.release").tag("outcome", "failed").register(meterRegistry);
+    }
+
+    /**
+     * Releases the stock now, or queues the release for retry. Never throws, so it does not mask the error that
+     * made the order fail; returns whether the stock was released right away.
+     */
+    public boolean release(String orderNumber, List<OrderItemRequest> items) {
+        try {
+            inventoryClient.releaseStock(orderNumber, items);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Stock release failed, queued for retry orderNumber={} error={}", orderNumber, e.getMessage());
+        }
+        try {
+            orderEventService.recordStockRelease(orderNumber, items);
+            queuedCounter.increment();
+        } catch (RuntimeException e) {
+            log.error("Failed to queue stock release orderNumber={} lines={} error={}", orderNumber, items.size(), e.getMessage());
+        }
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.stock-release.retry-interval:PT5S}")
+    public void retryPending() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderEvent> pending = transactionTemplate.execute(s -> {
+            List<OrderEvent> claimed = eventRepository.findClaimableStockReleases(now, RETRY_BATCH);
+            for (OrderEvent event : claimed) {
+                eventRepository.leaseAttempt(event.getId(), now.plus(backoff(event, now)));
+            }
+            return claimed;
+        });
+        if (pending == null) return;
+        for (OrderEvent event : pending) {
+            String orderNumber = null;
+            try {
+                JsonNode payload = objectMapper.readTree(event.getPayload());
+                orderNumber = payload.path("orderNumber").asText(null);
+                inventoryClient.releaseStock(orderNumber,
+                        Arrays.asList(objectMapper.treeToValue(payload.path("items"), OrderItemRequest[].class)));
+            } catch (InvalidOrderException | JsonProcessingException e) {
+                // rejected by InventoryService or unreadable: another attempt would fail the same way
+                markFailed(event, orderNumber, e);
+                continue;
+            } catch (RuntimeException e) {
+                // the claim counted this attempt in the table; the loaded event still holds the count before it
+                if (event.getAttempts() + 1 >= maxAttempts) {
+                    markFailed(event, orderNumber, e);
+                } else {
+                    // the lease set above holds the event back until its next attempt
+                    log.warn("Stock release retry failed id={} orderNumber={} attempt={} error={}",
+                            event.getId(), orderNumber, event.getAttempts() + 1, e.getMessage());
+                }
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(s -> eventRepository.markProcessed(List.of(event.getId()), LocalDateTime.now()));
+            retriedCounter.increment();
+            log.info("Released stock on retry id={} orderNumber={}", event.getId(), orderNumber);
+        }
+    }
+
+    private void markFailed(OrderEvent event, String orderNumber, Exception cause) {
+        transactionTemplate.executeWithoutResult(s -> eventRepository.markFailed(List.of(event.getId()), LocalDateTime.now()));
+        failedCounter.increment();
+        log.error("Stock release given up id={} orderNumber={} attempts={} error={}",
+                event.getId(), orderNumber, event.getAttempts() + 1, cause.getMessage());
+    }
+
+    private static Duration backoff(OrderEvent event, LocalDateTime now) {
+        Duration pending = event.getCreatedAt() == null ? MIN_BACKOFF : Duration.between(event.getCreatedAt(), now);
+        if (pending.compareTo(MIN_BACKOFF) < 0) return MIN_BACKOFF;
+        return pending.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : pending;
+    }
+}
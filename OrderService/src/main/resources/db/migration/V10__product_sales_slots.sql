@@ -0,0 +1,9 @@
+-- Spreads each (year, product) total over several slots, as daily_sales does for days, so concurrent orders for
+-- a popular product don't all queue on one row lock. Readers sum the slots per product. The revenue index no
+-- longer gives the top-N order once rows are split, so it is dropped; a year's rows are read through the key.
+
+ALTER TABLE product_sales ADD COLUMN IF NOT EXISTS slot smallint NOT NULL DEFAULT 0;
+ALTER TABLE product_sales ALTER COLUMN slot DROP DEFAULT;
+ALTER TABLE product_sales DROP CONSTRAINT IF EXISTS product_sales_pkey;
+ALTER TABLE product_sales ADD CONSTRAINT pk_product_sales PRIMARY KEY (sales_year, product_id, slot);
+DROP INDEX IF EXISTS idx_product_sales_top;
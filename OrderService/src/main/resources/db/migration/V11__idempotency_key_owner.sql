@@ -0,0 +1,7 @@
+-- Scopes idempotency keys to the caller that sent them, so two callers choosing the same key neither see each
+-- other's responses nor block each other. Keys stored before this belong to no caller and simply expire.
+
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS owner varchar(255) NOT NULL DEFAULT '';
+ALTER TABLE idempotency_keys ALTER COLUMN owner DROP DEFAULT;
+ALTER TABLE idempotency_keys DROP CONSTRAINT IF EXISTS idempotency_keys_pkey;
+ALTER TABLE idempotency_keys ADD CONSTRAINT pk_idempotency_keys PRIMARY KEY (owner, idem_key);
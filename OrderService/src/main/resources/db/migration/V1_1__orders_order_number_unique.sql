@@ -0,0 +1,12 @@
+-- The inline UNIQUE in V1 is skipped when orders already existed before migrations, so baselined databases get
+-- the constraint here. Fails if such a database already holds duplicate order numbers. A database that reaches
+-- this out of order already has the partitioned table and its (order_number, order_date) key, so it is left alone.
+
+DO
+$$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'orders'::regclass) THEN
+        CREATE UNIQUE INDEX IF NOT EXISTS uk_orders_order_number ON orders (order_number);
+    END IF;
+END
+$$;
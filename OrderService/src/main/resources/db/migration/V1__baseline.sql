@@ -0,0 +1,44 @@
+-- Schema as it was managed before migrations were introduced. Existing databases are baselined at version 0
+-- and run this as a no-op apart from the columns added since.
+
+CREATE TABLE IF NOT EXISTS orders (
+    id           bigint PRIMARY KEY,
+    order_number varchar(255) UNIQUE,
+    order_date   timestamp(6),
+    total_amount numeric(38, 2),
+    customer_id  varchar(255),
+    status       varchar(255)
+);
+
+CREATE TABLE IF NOT EXISTS order_items (
+    id         bigint PRIMARY KEY,
+    order_id   bigint REFERENCES orders (id),
+    product_id bigint,
+    quantity   integer,
+    price      numeric(38, 2),
+    subtotal   numeric(38, 2)
+);
+
+CREATE TABLE IF NOT EXISTS order_events (
+    id           bigint PRIMARY KEY,
+    event_type   varchar(255),
+    order_id     bigint,
+    payload      oid,
+    created_at   timestamp(6),
+    processed    boolean NOT NULL DEFAULT false,
+    processed_at timestamp(6),
+    lease_until  timestamp(6)
+);
+
+ALTER TABLE order_events ADD COLUMN IF NOT EXISTS lease_until timestamp(6);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idem_key      varchar(128) PRIMARY KEY,
+    request_hash  varchar(64)  NOT NULL,
+    status        varchar(255) NOT NULL,
+    response_body text,
+    created_at    timestamp(6),
+    expires_at    timestamp(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items (order_id);
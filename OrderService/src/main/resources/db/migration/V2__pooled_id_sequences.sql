@@ -0,0 +1,25 @@
+-- Moves primary keys from identity/serial columns to pooled sequences so Hibernate can batch inserts.
+-- Each nextval reserves a block of ${id_allocation_size} ids, which must match the allocation size the entities
+-- run with. The sequences start past the current maximum id, and the old column defaults are dropped so nothing
+-- keeps drawing from the identity sequence.
+
+DO $$
+DECLARE
+    t text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['orders', 'order_items', 'order_events'] LOOP
+        IF EXISTS (SELECT 1
+                   FROM information_schema.columns
+                   WHERE table_schema = current_schema()
+                     AND table_name = t
+                     AND column_name = 'id'
+                     AND is_identity = 'YES') THEN
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY', t);
+        ELSE
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP DEFAULT', t);
+        END IF;
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY %s', t || '_seq', ${id_allocation_size});
+        EXECUTE format('SELECT setval(%L, GREATEST((SELECT COALESCE(MAX(id), 0) FROM %I), 1))', t || '_seq', t);
+    END LOOP;
+END
+$$;
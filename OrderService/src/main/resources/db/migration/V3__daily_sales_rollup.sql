@@ -0,0 +1,13 @@
+-- Daily totals of non-cancelled orders, kept current by the order write path and rebuilt by the rollup backfill.
+-- A day is spread over several slots so concurrent orders don't all update the same row; readers sum the slots.
+
+CREATE TABLE IF NOT EXISTS daily_sales (
+    sales_date  date           NOT NULL,
+    slot        smallint       NOT NULL,
+    order_count bigint         NOT NULL,
+    total_sales numeric(38, 2) NOT NULL,
+    PRIMARY KEY (sales_date, slot)
+);
+
+-- The backfill rebuilds one month at a time with a range scan on order_date.
+CREATE INDEX IF NOT EXISTS idx_orders_order_date ON orders (order_date);
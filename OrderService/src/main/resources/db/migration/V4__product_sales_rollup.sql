@@ -0,0 +1,12 @@
+-- Quantity and revenue per product and year over non-cancelled orders, maintained alongside daily_sales.
+-- Top-N reads walk the (sales_year, revenue) index and stop after N entries.
+
+CREATE TABLE IF NOT EXISTS product_sales (
+    sales_year integer        NOT NULL,
+    product_id bigint         NOT NULL,
+    quantity   bigint         NOT NULL,
+    revenue    numeric(38, 2) NOT NULL,
+    PRIMARY KEY (sales_year, product_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_sales_top ON product_sales (sales_year, revenue DESC, product_id) INCLUDE (quantity);
@@ -0,0 +1,77 @@
+-- Range-partitions orders and order_items by month on order_date. order_items carries the order's date so both
+-- tables are split the same way and date-scoped queries touch only the partitions in range. Primary and unique
+-- keys of a partitioned table must contain the partition key, so they become (id, order_date) and
+-- (order_number, order_date); ids and order numbers stay unique through their generators. The foreign key from
+-- order_items to orders is dropped, since it would stop old partitions from being detached.
+-- The existing rows are copied, so on a large database run this in a maintenance window.
+
+CREATE OR REPLACE FUNCTION ensure_order_partitions(first_month date, last_month date) RETURNS integer
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    m       date := date_trunc('month', first_month)::date;
+    suffix  text;
+    created integer := 0;
+BEGIN
+    WHILE m <= last_month LOOP
+        suffix := to_char(m, 'YYYYMM');
+        IF to_regclass('orders_p' || suffix) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                           'orders_p' || suffix, m, (m + interval '1 month')::date);
+            created := created + 1;
+        END IF;
+        IF to_regclass('order_items_p' || suffix) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF order_items FOR VALUES FROM (%L) TO (%L)',
+                           'order_items_p' || suffix, m, (m + interval '1 month')::date);
+        END IF;
+        m := (m + interval '1 month')::date;
+    END LOOP;
+    RETURN created;
+END
+$$;
+
+ALTER TABLE order_items RENAME TO order_items_unpartitioned;
+ALTER TABLE orders RENAME TO orders_unpartitioned;
+-- frees the name for the partitioned table's unique constraint
+ALTER INDEX IF EXISTS uk_orders_order_number RENAME TO uk_orders_unpartitioned_order_number;
+
+CREATE TABLE orders (
+    id           bigint       NOT NULL,
+    order_number varchar(255),
+    order_date   timestamp(6) NOT NULL,
+    total_amount numeric(38, 2),
+    customer_id  varchar(255),
+    status       varchar(255),
+    CONSTRAINT pk_orders PRIMARY KEY (id, order_date),
+    CONSTRAINT uk_orders_order_number UNIQUE (order_number, order_date)
+) PARTITION BY RANGE (order_date);
+
+CREATE TABLE order_items (
+    id         bigint       NOT NULL,
+    order_id   bigint       NOT NULL,
+    order_date timestamp(6) NOT NULL,
+    product_id bigint,
+    quantity   integer,
+    price      numeric(38, 2),
+    subtotal   numeric(38, 2),
+    CONSTRAINT pk_order_items PRIMARY KEY (id, order_date)
+) PARTITION BY RANGE (order_date);
+
+SELECT ensure_order_partitions(
+        COALESCE((SELECT MIN(order_date) FROM orders_unpartitioned), now())::date,
+        (date_trunc('month', now()) + interval '3 months')::date);
+
+INSERT INTO orders (id, order_number, order_date, total_amount, customer_id, status)
+SELECT id, order_number, order_date, total_amount, customer_id, status
+FROM orders_unpartitioned;
+
+INSERT INTO order_items (id, order_id, order_date, product_id, quantity, price, subtotal)
+SELECT oi.id, oi.order_id, o.order_date, oi.product_id, oi.quantity, oi.price, oi.subtotal
+FROM order_items_unpartitioned oi
+JOIN orders_unpartitioned o ON o.id = oi.order_id;
+
+DROP TABLE order_items_unpartitioned;
+DROP TABLE orders_unpartitioned;
+
+CREATE INDEX idx_orders_order_date ON orders (order_date);
+CREATE INDEX idx_order_items_order_id ON order_items (order_id);
@@ -0,0 +1,53 @@
+-- Order numbers get an unpartitioned table of their own: the unique key on orders has to include order_date, so
+-- on its own it would accept the same number in two different months. Rows are written in the transaction that
+-- inserts the order.
+-- Both partitioned tables also get a DEFAULT partition, so an order dated outside the prepared months is stored
+-- instead of failing. ensure_order_partitions moves such rows into the month's partition when it creates it, and
+-- OrderPartitionMaintenance reports how many rows are left in the default partitions.
+
+CREATE TABLE order_numbers (
+    order_number varchar(255) PRIMARY KEY,
+    order_id     bigint       NOT NULL,
+    order_date   timestamp(6) NOT NULL
+);
+
+INSERT INTO order_numbers (order_number, order_id, order_date)
+SELECT order_number, id, order_date
+FROM orders
+WHERE order_number IS NOT NULL;
+
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+CREATE TABLE order_items_default PARTITION OF order_items DEFAULT;
+
+-- A partition cannot be created while the default partition holds rows in its range, so the month is built as a
+-- plain table, filled from the default partition and then attached.
+CREATE OR REPLACE FUNCTION ensure_order_partitions(first_month date, last_month date) RETURNS integer
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    m       date := date_trunc('month', first_month)::date;
+    next_m  date;
+    parent  text;
+    created integer := 0;
+BEGIN
+    WHILE m <= last_month LOOP
+        next_m := (m + interval '1 month')::date;
+        FOREACH parent IN ARRAY ARRAY['orders', 'order_items'] LOOP
+            IF to_regclass(parent || '_p' || to_char(m, 'YYYYMM')) IS NULL THEN
+                EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                               parent || '_p' || to_char(m, 'YYYYMM'), parent);
+                EXECUTE format('WITH moved AS (DELETE FROM %I WHERE order_date >= %L AND order_date < %L RETURNING *) '
+                                   || 'INSERT INTO %I SELECT * FROM moved',
+                               parent || '_default', m, next_m, parent || '_p' || to_char(m, 'YYYYMM'));
+                EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                               parent, parent || '_p' || to_char(m, 'YYYYMM'), m, next_m);
+                IF parent = 'orders' THEN
+                    created := created + 1;
+                END IF;
+            END IF;
+        END LOOP;
+        m := next_m;
+    END LOOP;
+    RETURN created;
+END
+$$;
@@ -0,0 +1,7 @@
+-- Keyset search (OrderSearchRepositoryImpl) filters on customer or status and pages by (order_date, id)
+-- descending. These indexes give each filter the matching order, so a page is a short backward index scan
+-- instead of a sort of every order of that customer or status. Created on the partitioned table, so every
+-- monthly partition, the default one and partitions created later get them too.
+
+CREATE INDEX IF NOT EXISTS idx_orders_customer_date_id ON orders (customer_id, order_date, id);
+CREATE INDEX IF NOT EXISTS idx_orders_status_date_id ON orders (status, order_date, id);
@@ -0,0 +1,5 @@
+-- Counts the attempts of a queued stock release and marks the ones given up on. A release that InventoryService
+-- rejects, or that keeps failing past the attempt limit, gets failed_at set and is not retried any more.
+
+ALTER TABLE order_events ADD COLUMN IF NOT EXISTS attempts integer NOT NULL DEFAULT 0;
+ALTER TABLE order_events ADD COLUMN IF NOT EXISTS failed_at timestamp(6);
@@ -0,0 +1,5 @@
+-- The outbox relay and the stock release retry claim unprocessed events oldest first. Processed events make up
+-- nearly all of the table, so a partial index on the pending ones stays small and serves the claim without
+-- scanning the whole history.
+
+CREATE INDEX IF NOT EXISTS idx_order_events_pending ON order_events (created_at) WHERE processed = false;
@@ -0,0 +1,59 @@
+package org.example.orderservice.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void arithmeticWorksOnMinorUnits() {
+        Money price = Money.of(new BigDecimal("19.90"));
+
+        assertThat(price.minorUnits()).isEqualTo(1990);
+        assertThat(price.times(3)).isEqualTo(Money.ofMinor(5970));
+        assertThat(price.plus(Money.of(new BigDecimal("0.10")))).isEqualTo(Money.of(new BigDecimal("20")));
+        assertThat(price.minus(Money.of(new BigDecimal("20.00")))).isEqualTo(Money.ofMinor(-10));
+        assertThat(price.negate().negate()).isEqualTo(price);
+        assertThat(Money.ofMinor(1).compareTo(Money.ZERO)).isPositive();
+    }
+
+    @Test
+    void overflowThrowsInsteadOfWrapping() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+
+        assertThatThrownBy(() -> max.plus(Money.ofMinor(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> max.times(2)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofMinor(Long.MIN_VALUE).negate()).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void extraDecimalsAreRejectedUnlessARoundingModeIsGiven() {
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1.005"))).isInstanceOf(ArithmeticException.class);
+
+        assertThat(Money.of(new BigDecimal("1.005"), RoundingMode.HALF_UP)).isEqualTo(Money.ofMinor(101));
+        assertThat(Money.of(new BigDecimal("1.005"), RoundingMode.HALF_EVEN)).isEqualTo(Money.ofMinor(100));
+        assertThat(Money.of(null)).isNull();
+    }
+
+    @Test
+    void convertsToBigDecimalAtTheFixedScale() {
+        assertThat(Money.ofMinor(5).toBigDecimal()).isEqualByComparingTo("0.05");
+        assertThat(Money.ofMinor(5).toBigDecimal().scale()).isEqualTo(Money.SCALE);
+    }
+
+    @Test
+    void toStringIsAPlainDecimal() {
+        assertThat(Money.ofMinor(1990)).hasToString("19.90");
+        assertThat(Money.ofMinor(7)).hasToString("0.07");
+        assertThat(Money.ofMinor(-5)).hasToString("-0.05");
+        assertThat(Money.ofMinor(-1234)).hasToString("-12.34");
+        assertThat(Money.ZERO).hasToString("0.00");
+        assertThat(Money.ofMinor(Long.MIN_VALUE).toString())
+                .isEqualTo(BigDecimal.valueOf(Long.MIN_VALUE, Money.SCALE).toPlainString());
+    }
+}
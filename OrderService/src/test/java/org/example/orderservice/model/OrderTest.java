@@ -0,0 +1,60 @@
+package org.example.orderservice.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderTest {
+
+    @Test
+    void totalFollowsAddedAndRemovedItems() {
+        Order order = new Order();
+        OrderItem first = new OrderItem(1L, 2, money("10.00"));
+        OrderItem second = new OrderItem(2L, 3, money("0.99"));
+
+        order.addItem(first);
+        order.addItem(second);
+        assertThat(order.getTotalAmount()).isEqualTo(money("22.97"));
+
+        order.removeItem(first);
+        assertThat(order.getTotalAmount()).isEqualTo(money("2.97"));
+
+        // removing an item that is not on the order leaves the total alone
+        order.removeItem(first);
+        assertThat(order.getTotalAmount()).isEqualTo(money("2.97"));
+    }
+
+    @Test
+    void totalFollowsQuantityAndPriceChanges() {
+        Order order = new Order();
+        OrderItem item = new OrderItem(1L, 2, money("5.00"));
+        order.addItem(item);
+
+        item.setQuantity(4);
+        assertThat(order.getTotalAmount()).isEqualTo(money("20.00"));
+
+        item.setPrice(money("4.50"));
+        assertThat(order.getTotalAmount()).isEqualTo(money("18.00"));
+    }
+
+    @Test
+    void replacingItemsRecomputesTotal() {
+        Order order = new Order();
+        order.addItem(new OrderItem(1L, 1, money("100.00")));
+        List<OrderItem> items = new ArrayList<>(List.of(
+                new OrderItem(2L, 1, money("1.10")),
+                new OrderItem(3L, 2, money("2.20"))));
+
+        order.setItems(items);
+
+        assertThat(order.getTotalAmount()).isEqualTo(money("5.50"));
+    }
+
+    private static Money money(String amount) {
+        return Money.of(new BigDecimal(amount));
+    }
+}
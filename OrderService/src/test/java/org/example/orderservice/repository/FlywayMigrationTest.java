@@ -0,0 +1,91 @@
+package org.example.orderservice.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the whole migration chain against Postgres, both on an empty schema and on a schema as it was before
+ * migrations were introduced, so a migration that only breaks on one of them fails the build.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class FlywayMigrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Test
+    void migratesEmptySchema() {
+        DataSource dataSource = dataSource("fresh");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE SCHEMA fresh");
+
+        flyway(dataSource, "fresh").migrate();
+
+        assertPartitioned(jdbc, "fresh");
+    }
+
+    @Test
+    void migratesBaselinedLegacySchema() {
+        DataSource dataSource = dataSource("legacy");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE SCHEMA legacy");
+        // as Hibernate created it, without the unique constraint on order_number
+        jdbc.execute("""
+                CREATE TABLE orders (
+                    id bigint PRIMARY KEY, order_number varchar(255), order_date timestamp(6),
+                    total_amount numeric(38, 2), customer_id varchar(255), status varchar(255))
+                """);
+        jdbc.execute("""
+                CREATE TABLE order_items (
+                    id bigint PRIMARY KEY, order_id bigint REFERENCES orders (id), product_id bigint,
+                    quantity integer, price numeric(38, 2), subtotal numeric(38, 2))
+                """);
+        jdbc.update("INSERT INTO orders VALUES (1, 'ORD-1', now() - interval '2 months', 20.00, 'c-1', 'CREATED')");
+        jdbc.update("INSERT INTO order_items VALUES (1, 1, 7, 2, 10.00, 20.00)");
+
+        flyway(dataSource, "legacy").migrate();
+
+        assertPartitioned(jdbc, "legacy");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM orders WHERE order_number = 'ORD-1'", Long.class))
+                .isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT order_date FROM order_items WHERE id = 1", Object.class)).isNotNull();
+    }
+
+    private static void assertPartitioned(JdbcTemplate jdbc, String schema) {
+        assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid "
+                        + "JOIN pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = ?",
+                Long.class, schema)).isEqualTo(2);
+        assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint c JOIN pg_namespace n ON n.oid = c.connamespace "
+                        + "WHERE n.nspname = ? AND c.conname = 'uk_orders_order_number'",
+                Long.class, schema)).isEqualTo(1);
+    }
+
+    private static Flyway flyway(DataSource dataSource, String schema) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(schema)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .placeholders(Map.of("id_allocation_size", "50"))
+                .load();
+    }
+
+    private static DataSource dataSource(String schema) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        dataSource.setSchema(schema);
+        return dataSource;
+    }
+}
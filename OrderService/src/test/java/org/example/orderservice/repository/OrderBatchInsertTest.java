@@ -0,0 +1,49 @@
+package org.example.orderservice.repository;
+
+import jakarta.persistence.EntityManager;
+import org.example.orderservice.model.Money;
+import org.example.orderservice.model.Order;
+import org.example.orderservice.model.OrderItem;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class OrderBatchInsertTest {
+    private static final int ITEMS = 20;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void multiItemOrderIsWrittenWithBatchedInserts() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        Order order = new Order();
+        order.setOrderNumber("ORD-BATCH-TEST");
+        order.setCustomerId("customer-1");
+        for (int i = 0; i < ITEMS; i++) {
+            order.addItem(new OrderItem((long) i + 1, 1, Money.of(BigDecimal.TEN)));
+        }
+        statistics.clear();
+
+        orderRepository.save(order);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ITEMS + 1);
+        // at most two sequence calls per table to prime the pooled optimizer, then one batched insert per table;
+        // with identity ids this would be one statement per row
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.orderservice.repository;
+
+import jakarta.persistence.EntityManager;
+import org.example.orderservice.model.Order;
+import org.example.orderservice.model.OrderStatus;
+import org.example.orderservice.service.SnowflakeOrderNumberGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+class OrderNumberLookupTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1);
+
+    @Test
+    void generatedNumberIsFoundWithinADayOfItsTimestamp() {
+        String orderNumber = generator.next();
+        Order saved = save(orderNumber, LocalDateTime.now().minusHours(20));
+
+        assertThat(orderRepository.findByOrderNumber(orderNumber)).get()
+                .extracting(Order::getId).isEqualTo(saved.getId());
+    }
+
+    @Test
+    void generatedNumberOnlySearchesAroundItsTimestamp() {
+        // an order date far from the encoded time lies in partitions the lookup no longer scans
+        String orderNumber = generator.next();
+        save(orderNumber, LocalDateTime.now().minusDays(3));
+
+        assertThat(orderRepository.findByOrderNumber(orderNumber)).isEmpty();
+        assertThat(orderRepository.findFirstByOrderNumber(orderNumber)).isPresent();
+    }
+
+    @Test
+    void numbersInOtherFormatsFallBackToAFullLookup() {
+        Order saved = save("ORD-LEGACY-42", LocalDateTime.now().minusYears(2));
+
+        assertThat(orderRepository.findByOrderNumber("ORD-LEGACY-42")).get()
+                .extracting(Order::getId).isEqualTo(saved.getId());
+        assertThat(orderRepository.findByOrderNumber("ORD-MISSING")).isEmpty();
+    }
+
+    private Order save(String orderNumber, LocalDateTime orderDate) {
+        Order order = new Order();
+        order.setOrderNumber(orderNumber);
+        order.setCustomerId("customer-1");
+        order.setOrderDate(orderDate);
+        order.setStatus(OrderStatus.PENDING);
+        Order saved = orderRepository.save(order);
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
+    }
+}
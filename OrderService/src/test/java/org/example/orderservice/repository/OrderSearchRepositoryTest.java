@@ -0,0 +1,98 @@
+package org.example.orderservice.repository;
+
+import jakarta.persistence.EntityManager;
+import org.example.orderservice.dto.OrderSearchCriteria;
+import org.example.orderservice.model.Money;
+import org.example.orderservice.model.Order;
+import org.example.orderservice.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+class OrderSearchRepositoryTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 10, 0);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Order> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // three orders per timestamp, so pages have to break ties on id
+        for (int i = 0; i < 12; i++) {
+            orders.add(save("customer-" + (i % 2), START.plusHours(i / 3), OrderStatus.PENDING, 10 + i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesVisitEveryOrderOnceNewestFirst() {
+        List<Long> seen = new ArrayList<>();
+        LocalDateTime afterOrderDate = null;
+        Long afterId = null;
+        List<Long> page;
+        do {
+            page = orderRepository.searchIds(new OrderSearchCriteria(), afterOrderDate, afterId, 5);
+            seen.addAll(page);
+            if (!page.isEmpty()) {
+                Order last = orderRepository.findById(page.get(page.size() - 1)).orElseThrow();
+                afterOrderDate = last.getOrderDate();
+                afterId = last.getId();
+            }
+        } while (page.size() == 5);
+
+        assertThat(seen).containsExactlyElementsOf(orders.stream()
+                .sorted(Comparator.comparing(Order::getOrderDate).thenComparing(Order::getId).reversed())
+                .map(Order::getId)
+                .toList());
+    }
+
+    @Test
+    void keysetCombinesWithFilters() {
+        Order after = orders.get(9);
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setCustomerId("customer-1");
+        criteria.setMinAmount(new BigDecimal("12.001"));
+
+        List<Long> ids = orderRepository.searchIds(criteria, after.getOrderDate(), after.getId(), 10);
+
+        assertThat(ids).containsExactly(orders.get(7).getId(), orders.get(5).getId(), orders.get(3).getId());
+    }
+
+    @Test
+    void dateBoundsAreInclusiveDays() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setFrom(LocalDate.of(2025, 3, 1));
+        criteria.setTo(LocalDate.of(2025, 3, 1));
+        save("customer-0", START.plusDays(1), OrderStatus.PENDING, 5);
+        entityManager.flush();
+
+        assertThat(orderRepository.searchIds(criteria, null, null, 100)).hasSize(orders.size());
+    }
+
+    private Order save(String customerId, LocalDateTime orderDate, OrderStatus status, int amount) {
+        Order order = new Order();
+        order.setOrderNumber("ORD-SEARCH-" + customerId + "-" + orderDate + "-" + amount);
+        order.setCustomerId(customerId);
+        order.setOrderDate(orderDate);
+        order.setStatus(status);
+        order.setTotalAmount(Money.of(BigDecimal.valueOf(amount)));
+        return orderRepository.save(order);
+    }
+}
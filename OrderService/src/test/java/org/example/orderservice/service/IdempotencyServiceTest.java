@@ -0,0 +1,132 @@
+package org.example.orderservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.orderservice.config.IdempotencyProperties;
+import org.example.orderservice.dto.OrderResponse;
+import org.example.orderservice.exception.IdempotencyKeyMismatchException;
+import org.example.orderservice.model.IdempotencyKey;
+import org.example.orderservice.model.IdempotencyKeyId;
+import org.example.orderservice.model.IdempotencyStatus;
+import org.example.orderservice.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+    private static final Map<String, String> REQUEST = Map.of("customerId", "customer-1");
+
+    private final IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+    private final AtomicInteger runs = new AtomicInteger();
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.claim(anyString(), anyString(), anyString(), any(), any())).thenReturn(1);
+        service = new IdempotencyService(repository, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new ObjectMapper(), new IdempotencyProperties());
+    }
+
+    @Test
+    void retryWithSameRequestReplaysStoredResponse() {
+        OrderResponse first = service.execute("user-1", "key-1", REQUEST, this::createOrder);
+        OrderResponse retry = service.execute("user-1", "key-1", REQUEST, this::createOrder);
+
+        assertThat(runs).hasValue(1);
+        assertThat(retry).isEqualTo(first);
+        verify(repository).complete(eq("user-1"), eq("key-1"), anyString(), any());
+    }
+
+    @Test
+    void reusingKeyForDifferentRequestIsRejected() {
+        service.execute("user-1", "key-1", REQUEST, this::createOrder);
+
+        assertThatThrownBy(() -> service.execute("user-1", "key-1", Map.of("customerId", "customer-2"), this::createOrder))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void sameKeyFromAnotherCallerRunsOnItsOwn() {
+        service.execute("user-1", "key-1", REQUEST, this::createOrder);
+        service.execute("user-2", "key-1", Map.of("customerId", "customer-2"), this::createOrder);
+
+        assertThat(runs).hasValue(2);
+        verify(repository).claim(eq("user-2"), eq("key-1"), anyString(), any(), any());
+    }
+
+    @Test
+    void keyCompletedElsewhereIsReplayedFromTheTable() throws Exception {
+        service.execute("user-1", "seed", REQUEST, this::createOrder);
+        IdempotencyKey row = new IdempotencyKey();
+        row.setOwner("user-1");
+        row.setKey("key-1");
+        row.setRequestHash(storedHashOf("seed"));
+        row.setStatus(IdempotencyStatus.COMPLETED);
+        row.setResponseBody(new ObjectMapper().writeValueAsString(response(42L)));
+        when(repository.claim(eq("user-1"), eq("key-1"), anyString(), any(), any())).thenReturn(0);
+        when(repository.findById(new IdempotencyKeyId("user-1", "key-1"))).thenReturn(Optional.of(row));
+
+        OrderResponse replayed = service.execute("user-1", "key-1", REQUEST, this::createOrder);
+
+        assertThat(replayed.getId()).isEqualTo(42L);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void failedActionReleasesTheKey() {
+        assertThatThrownBy(() -> service.execute("user-1", "key-1", REQUEST, complete -> {
+            throw new IllegalStateException("inventory down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(repository).release("user-1", "key-1");
+        verify(repository, never()).complete(anyString(), anyString(), anyString(), any());
+    }
+
+    // Stands in for OrderService.createOrder: stores the response inside a transaction that then commits
+    private OrderResponse createOrder(Consumer<OrderResponse> complete) {
+        OrderResponse response = response((long) runs.incrementAndGet());
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            complete.accept(response);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        return response;
+    }
+
+    private String storedHashOf(String key) {
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(repository).claim(eq("user-1"), eq(key), hash.capture(), any(), any());
+        return hash.getValue();
+    }
+
+    private static OrderResponse response(Long id) {
+        OrderResponse response = new OrderResponse();
+        response.setId(id);
+        response.setOrderNumber("ORD-" + id);
+        response.setCustomerId("customer-1");
+        return response;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.orderservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.example.orderservice.model.Money;
+import org.example.orderservice.model.Order;
+import org.example.orderservice.model.OrderItem;
+import org.example.orderservice.model.OrderStatus;
+import org.example.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Import({OrderExportService.class, JacksonAutoConfiguration.class})
+class OrderExportServiceTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 3, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusMonths(1);
+
+    @Autowired
+    private OrderExportService exportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Order twoItems;
+    private Order noItems;
+    private Order oneItem;
+
+    @BeforeEach
+    void setUp() {
+        twoItems = save(FROM.plusDays(1), OrderStatus.PENDING, 7L, 8L);
+        noItems = save(FROM.plusDays(2), OrderStatus.PENDING);
+        oneItem = save(FROM.plusDays(3), OrderStatus.CANCELLED, 9L);
+        save(TO, OrderStatus.PENDING, 10L);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void writesOneLinePerOrderWithItsItemsNested() throws IOException {
+        List<JsonNode> lines = export(null);
+
+        assertThat(lines).extracting(line -> line.get("id").asLong())
+                .containsExactly(twoItems.getId(), noItems.getId(), oneItem.getId());
+        assertThat(lines.get(0).get("items")).extracting(item -> item.get("productId").asLong())
+                .containsExactly(7L, 8L);
+        assertThat(lines.get(0).get("orderNumber").asText()).isEqualTo(twoItems.getOrderNumber());
+        assertThat(lines.get(1).get("items")).isEmpty();
+        assertThat(lines.get(2).get("items")).extracting(item -> item.get("productId").asLong())
+                .containsExactly(9L);
+    }
+
+    @Test
+    void statusFilterKeepsOnlyMatchingOrders() throws IOException {
+        List<JsonNode> lines = export(OrderStatus.CANCELLED);
+
+        assertThat(lines).singleElement()
+                .satisfies(line -> assertThat(line.get("id").asLong()).isEqualTo(oneItem.getId()));
+        assertThat(lines.get(0).get("status").asText()).isEqualTo("CANCELLED");
+    }
+
+    private List<JsonNode> export(OrderStatus status) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportNdjson(FROM, TO, status, out);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        return lines;
+    }
+
+    private Order save(LocalDateTime orderDate, OrderStatus status, Long... productIds) {
+        Order order = new Order();
+        order.setOrderNumber("ORD-EXPORT-" + orderDate);
+        order.setCustomerId("customer-1");
+        order.setOrderDate(orderDate);
+        order.setStatus(status);
+        order.setTotalAmount(Money.of(BigDecimal.TEN));
+        for (Long productId : productIds) {
+            order.addItem(new OrderItem(productId, 1, Money.of(BigDecimal.TEN)));
+        }
+        return orderRepository.save(order);
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.orderservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.orderservice.config.OrderPartitionProperties;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class OrderPartitionMaintenanceTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure()
+                .dataSource(dataSource)
+                .placeholders(Map.of("id_allocation_size", "50"))
+                .load()
+                .migrate();
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void detachesPartitionsOutsideRetentionWhileDefaultPartitionExists() {
+        YearMonth old = YearMonth.now().minusMonths(6);
+        String suffix = old.format(DateTimeFormatter.ofPattern("yyyyMM"));
+        jdbc.queryForObject("SELECT ensure_order_partitions(?, ?)", Integer.class, old.atDay(1), old.atDay(1));
+        jdbc.update("INSERT INTO orders (id, order_number, order_date, status) VALUES (1, 'ORD-OLD', ?, 'CREATED')",
+                old.atDay(10).atStartOfDay());
+        assertThat(isAttached("orders_default")).isTrue();
+
+        OrderPartitionProperties props = new OrderPartitionProperties();
+        props.setRetentionMonths(3);
+        new OrderPartitionMaintenance(jdbc, props, new SimpleMeterRegistry()).maintain();
+
+        assertThat(isAttached("orders_p" + suffix)).isFalse();
+        assertThat(isAttached("order_items_p" + suffix)).isFalse();
+        assertThat(isAttached("orders_p" + YearMonth.now().format(DateTimeFormatter.ofPattern("yyyyMM")))).isTrue();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM orders_p" + suffix, Long.class)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM orders WHERE order_number = 'ORD-OLD'", Long.class))
+                .isZero();
+    }
+
+    private static boolean isAttached(String partition) {
+        return Boolean.TRUE.equals(jdbc.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_inherits WHERE inhrelid = CAST(? AS regclass))",
+                Boolean.class, partition));
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.orderservice.service;
+
+import org.example.orderservice.dto.OrderPageResponse;
+import org.example.orderservice.dto.OrderSearchCriteria;
+import org.example.orderservice.exception.InvalidOrderException;
+import org.example.orderservice.model.Order;
+import org.example.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderSearchCursorTest {
+    private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_000_000);
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrderService orderService = new OrderService(orderRepository, null, null, null, null, null, null, null);
+    private final OrderSearchCriteria criteria = new OrderSearchCriteria();
+
+    @Test
+    void fullPageHandsOutCursorOfItsLastOrder() {
+        when(orderRepository.searchIds(criteria, null, null, 3)).thenReturn(List.of(9L, 8L, 7L));
+        when(orderRepository.findWithItemsByIdIn(List.of(9L, 8L))).thenReturn(List.of(order(8L), order(9L)));
+
+        OrderPageResponse page = orderService.searchOrders(criteria, null, 2);
+
+        assertThat(page.getOrders()).extracting("id").containsExactly(9L, 8L);
+        assertThat(page.getNextCursor()).isNotNull();
+        assertThat(new String(Base64.getUrlDecoder().decode(page.getNextCursor()), StandardCharsets.UTF_8))
+                .isEqualTo(ORDER_DATE + "|8");
+    }
+
+    @Test
+    void cursorResumesAfterThePositionItEncodes() {
+        when(orderRepository.searchIds(criteria, null, null, 2)).thenReturn(List.of(9L, 8L));
+        when(orderRepository.findWithItemsByIdIn(List.of(9L))).thenReturn(List.of(order(9L)));
+        String cursor = orderService.searchOrders(criteria, null, 1).getNextCursor();
+        when(orderRepository.searchIds(criteria, ORDER_DATE, 9L, 2)).thenReturn(List.of(8L));
+        when(orderRepository.findWithItemsByIdIn(List.of(8L))).thenReturn(List.of(order(8L)));
+
+        OrderPageResponse last = orderService.searchOrders(criteria, cursor, 1);
+
+        verify(orderRepository).searchIds(criteria, ORDER_DATE, 9L, 2);
+        assertThat(last.getOrders()).extracting("id").containsExactly(8L);
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void pageSizeIsClamped() {
+        when(orderRepository.searchIds(any(), isNull(), isNull(), anyInt())).thenReturn(List.of());
+
+        orderService.searchOrders(criteria, null, 10_000);
+        orderService.searchOrders(criteria, "", 0);
+
+        verify(orderRepository).searchIds(criteria, null, null, 201);
+        verify(orderRepository).searchIds(eq(criteria), isNull(), isNull(), eq(2));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        String wrongFields = Base64.getUrlEncoder().encodeToString("2025-03-01T10:15".getBytes(StandardCharsets.UTF_8));
+        String wrongId = Base64.getUrlEncoder().encodeToString("2025-03-01T10:15|x".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> orderService.searchOrders(criteria, "not base64!", 10))
+                .isInstanceOf(InvalidOrderException.class);
+        assertThatThrownBy(() -> orderService.searchOrders(criteria, wrongFields, 10))
+                .isInstanceOf(InvalidOrderException.class);
+        assertThatThrownBy(() -> orderService.searchOrders(criteria, wrongId, 10))
+                .isInstanceOf(InvalidOrderException.class);
+    }
+
+    private static Order order(Long id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderNumber("ORD-" + id);
+        order.setOrderDate(ORDER_DATE);
+        return order;
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.orderservice.service;
+
+import org.example.orderservice.config.SalesRollupProperties;
+import org.example.orderservice.model.Money;
+import org.example.orderservice.model.Order;
+import org.example.orderservice.model.OrderItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class SalesRollupServiceTest {
+    private static final LocalDateTime MARCH_1 = LocalDateTime.of(2025, 3, 1, 9, 0);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SalesRollupProperties props = new SalesRollupProperties();
+    private final List<Map<Integer, Object>> dailyRows = new ArrayList<>();
+    private final List<Map<Integer, Object>> productRows = new ArrayList<>();
+    private SalesRollupService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        doAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            Collection<Object> rows = invocation.getArgument(1);
+            ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+            List<Map<Integer, Object>> target = sql.contains("daily_sales") ? dailyRows : productRows;
+            for (Object row : rows) {
+                Map<Integer, Object> values = new TreeMap<>();
+                PreparedStatement ps = mock(PreparedStatement.class, call -> {
+                    if (call.getMethod().getName().startsWith("set")) {
+                        values.put(call.getArgument(0), call.getArgument(1));
+                    }
+                    return null;
+                });
+                setter.setValues(ps, row);
+                target.add(values);
+            }
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), any(Collection.class), anyInt(), any());
+        service = new SalesRollupService(jdbcTemplate, props);
+    }
+
+    @Test
+    void placedOrdersAreSummedPerDayAndPerProduct() {
+        service.recordPlaced(List.of(
+                order(MARCH_1, item(7L, 2, "10.00"), item(8L, 1, "5.00")),
+                order(MARCH_1.plusHours(5), item(7L, 4, "3.50")),
+                order(MARCH_1.plusDays(1), item(8L, 3, "1.25"))));
+
+        assertThat(dailyRows).hasSize(2);
+        assertDaily(dailyRows.get(0), LocalDate.of(2025, 3, 1), 2, "39.00");
+        assertDaily(dailyRows.get(1), LocalDate.of(2025, 3, 2), 1, "3.75");
+        assertThat(productRows).hasSize(2);
+        assertProduct(productRows.get(0), 7L, 6, "34.00");
+        assertProduct(productRows.get(1), 8L, 4, "8.75");
+    }
+
+    @Test
+    void cancellationSubtractsTheOrder() {
+        service.recordCancelled(order(MARCH_1, item(7L, 2, "10.00")));
+
+        assertThat(dailyRows).singleElement().satisfies(row -> assertDaily(row, LocalDate.of(2025, 3, 1), -1, "-20.00"));
+        assertThat(productRows).singleElement().satisfies(row -> assertProduct(row, 7L, -2, "-20.00"));
+    }
+
+    @Test
+    void allRowsOfOneCallShareOneSlot() {
+        props.setStripes(4);
+
+        service.recordPlaced(List.of(
+                order(MARCH_1, item(7L, 1, "1.00")),
+                order(MARCH_1.plusDays(1), item(8L, 1, "1.00"))));
+
+        List<Object> slots = new ArrayList<>();
+        dailyRows.forEach(row -> slots.add(row.get(2)));
+        productRows.forEach(row -> slots.add(row.get(3)));
+        assertThat(slots).hasSize(4).containsOnly(slots.get(0));
+        assertThat((Integer) slots.get(0)).isBetween(0, 3);
+    }
+
+    @Test
+    void touchedPeriodsAreLockedShared() {
+        service.recordPlaced(List.of(
+                order(MARCH_1, item(7L, 1, "1.00")),
+                order(LocalDateTime.of(2026, 1, 2, 9, 0), item(7L, 1, "1.00"))));
+
+        String shared = "SELECT pg_advisory_xact_lock_shared(?, ?)";
+        verify(jdbcTemplate).query(eq(shared), any(ResultSetExtractor.class), eq(SalesRollupService.DAILY_SALES_LOCK), eq(202503));
+        verify(jdbcTemplate).query(eq(shared), any(ResultSetExtractor.class), eq(SalesRollupService.DAILY_SALES_LOCK), eq(202601));
+        verify(jdbcTemplate).query(eq(shared), any(ResultSetExtractor.class), eq(SalesRollupService.PRODUCT_SALES_LOCK), eq(2025));
+        verify(jdbcTemplate).query(eq(shared), any(ResultSetExtractor.class), eq(SalesRollupService.PRODUCT_SALES_LOCK), eq(2026));
+    }
+
+    private static void assertDaily(Map<Integer, Object> row, LocalDate day, long count, String amount) {
+        assertThat(row.get(1)).isEqualTo(day);
+        assertThat(row.get(3)).isEqualTo(count);
+        assertThat((BigDecimal) row.get(4)).isEqualByComparingTo(amount);
+    }
+
+    private static void assertProduct(Map<Integer, Object> row, long productId, long quantity, String revenue) {
+        assertThat(row.get(1)).isEqualTo(2025);
+        assertThat(row.get(2)).isEqualTo(productId);
+        assertThat(row.get(4)).isEqualTo(quantity);
+        assertThat((BigDecimal) row.get(5)).isEqualByComparingTo(revenue);
+    }
+
+    private static Order order(LocalDateTime orderDate, OrderItem... items) {
+        Order order = new Order();
+        order.setOrderDate(orderDate);
+        for (OrderItem item : items) {
+            order.addItem(item);
+        }
+        return order;
+    }
+
+    private static OrderItem item(Long productId, int quantity, String price) {
+        return new OrderItem(productId, quantity, Money.of(new BigDecimal(price)));
+    }
+}
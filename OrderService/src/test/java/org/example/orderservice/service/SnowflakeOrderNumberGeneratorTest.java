@@ -0,0 +1,95 @@
+package org.example.orderservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.example.orderservice.service.SnowflakeOrderNumberGenerator.EPOCH_MILLIS;
+import static org.example.orderservice.service.SnowflakeOrderNumberGenerator.NODE_BITS;
+import static org.example.orderservice.service.SnowflakeOrderNumberGenerator.SEQUENCE_BITS;
+
+class SnowflakeOrderNumberGeneratorTest {
+    private static final long NOW = Instant.parse("2025-06-01T12:00:00Z").toEpochMilli();
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+    private final SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(5, clock::get);
+
+    @Test
+    void packsTimestampNodeAndSequence() {
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        assertThat(millis(first)).isEqualTo(NOW - EPOCH_MILLIS);
+        assertThat(node(first)).isEqualTo(5);
+        assertThat(sequence(first)).isZero();
+        assertThat(millis(second)).isEqualTo(NOW - EPOCH_MILLIS);
+        assertThat(sequence(second)).isEqualTo(1);
+    }
+
+    @Test
+    void sequenceOverflowCarriesIntoNextMillisecond() {
+        long last = 0;
+        for (int i = 0; i <= 1 << SEQUENCE_BITS; i++) {
+            last = generator.nextId();
+        }
+
+        assertThat(millis(last)).isEqualTo(NOW - EPOCH_MILLIS + 1);
+        assertThat(sequence(last)).isZero();
+    }
+
+    @Test
+    void clockSteppingBackKeepsNumbersIncreasing() {
+        long before = generator.nextId();
+        clock.set(NOW - 5_000);
+        long after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+        assertThat(millis(after)).isEqualTo(millis(before));
+        assertThat(sequence(after)).isEqualTo(1);
+    }
+
+    @Test
+    void numbersSortByCreationTimeAsStrings() {
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            clock.addAndGet(i % 3);
+            numbers.add(generator.next());
+        }
+
+        assertThat(numbers).isSorted().doesNotHaveDuplicates();
+        assertThat(numbers.get(0)).startsWith("ORD-").hasSize(17);
+    }
+
+    @Test
+    void issuedAtDecodesTheTimestamp() {
+        assertThat(SnowflakeOrderNumberGenerator.issuedAt(generator.next())).contains(Instant.ofEpochMilli(NOW));
+        assertThat(SnowflakeOrderNumberGenerator.issuedAt("ORD-1")).isEmpty();
+        assertThat(SnowflakeOrderNumberGenerator.issuedAt("ORD-0000000000OIL")).isEmpty();
+        assertThat(SnowflakeOrderNumberGenerator.issuedAt(null)).isEmpty();
+    }
+
+    @Test
+    void rejectsNodeIdOutOfRange() {
+        assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator(1L << NODE_BITS, clock::get))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator(-1, clock::get))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long millis(long id) {
+        return id >>> (NODE_BITS + SEQUENCE_BITS);
+    }
+
+    private static long node(long id) {
+        return (id >>> SEQUENCE_BITS) & ((1L << NODE_BITS) - 1);
+    }
+
+    private static long sequence(long id) {
+        return id & ((1L << SEQUENCE_BITS) - 1);
+    }
+}
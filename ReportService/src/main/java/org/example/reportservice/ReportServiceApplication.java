@@ -1,8 +1,10 @@
 package org.example.reportservice;
 
+import org.example.downstream.DownstreamClients;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 
 @SpringBootApplication
@@ -12,8 +14,11 @@ public class ReportServiceApplication {
     }
 
     @Bean
-    RestTemplate restTemplate() {
-        return new RestTemplate();
+    RestTemplate restTemplate(DownstreamClients downstreamClients) {
+        RestTemplate template = downstreamClients.restTemplate("order-service");
+        // report endpoints answer in Smile when asked, see OrderReportClient
+        template.getMessageConverters().add(0, new MappingJackson2SmileHttpMessageConverter());
+        return template;
     }
 }
 
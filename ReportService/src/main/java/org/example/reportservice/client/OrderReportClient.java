@@ -1,8 +1,14 @@
 package org.example.reportservice.client;
 
+import org.example.instrumentation.Instrumented;
 import org.example.reportservice.dto.MonthlySalesDTO;
 import org.example.reportservice.dto.TopProductDTO;
+import org.example.reportservice.jfr.OrderReportFetchEvent;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
@@ -10,7 +16,18 @@ import java.util.Arrays;
 import java.util.List;
 
 @Component
+@Instrumented
 public class OrderReportClient {
+    // Smile is smaller and cheaper to parse than JSON; JSON stays acceptable for older OrderService instances
+    private static final HttpEntity<Void> PREFER_SMILE;
+
+    static {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(
+                MediaType.parseMediaType("application/x-jackson-smile"),
+                MediaType.parseMediaType("application/json;q=0.9")));
+        PREFER_SMILE = new HttpEntity<>(headers);
+    }
 
     private final RestTemplate restTemplate;
     private final String baseUrl;
@@ -23,14 +40,26 @@ public class OrderReportClient {
 
     public List<MonthlySalesDTO> fetchMonthlySales(int year) {
         String url = baseUrl + "/internal/reports/monthly-sales?year=" + year;
-        ResponseEntity<MonthlySalesDTO[]> resp = restTemplate.getForEntity(url, MonthlySalesDTO[].class);
-        return Arrays.asList(resp.getBody() == null ? new MonthlySalesDTO[0] : resp.getBody());
+        return fetch(new OrderReportFetchEvent("monthly-sales", year), url, MonthlySalesDTO[].class);
     }
 
     public List<TopProductDTO> fetchTopProducts(int year, int limit) {
         String url = baseUrl + "/internal/reports/top-products?year=" + year + "&limit=" + limit;
-        ResponseEntity<TopProductDTO[]> resp = restTemplate.getForEntity(url, TopProductDTO[].class);
-        return Arrays.asList(resp.getBody() == null ? new TopProductDTO[0] : resp.getBody());
+        return fetch(new OrderReportFetchEvent("top-products", year), url, TopProductDTO[].class);
     }
-}
 
+    private <T> List<T> fetch(OrderReportFetchEvent event, String url, Class<T[]> type) {
+        event.begin();
+        try {
+            ResponseEntity<T[]> resp = restTemplate.exchange(url, HttpMethod.GET, PREFER_SMILE, type);
+            T[] body = resp.getBody();
+            MediaType contentType = resp.getHeaders().getContentType();
+            event.contentType = contentType == null ? null : contentType.toString();
+            event.rows = body == null ? 0 : body.length;
+            event.succeeded = true;
+            return body == null ? List.of() : Arrays.asList(body);
+        } finally {
+            event.commit();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.reportservice.exception;
 
+import org.example.downstream.DownstreamUnavailableException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -9,6 +10,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.client.ResourceAccessException;
 
 import java.time.Instant;
 
@@ -26,6 +28,12 @@ public class GlobalExceptionHandler {
         return build(HttpStatus.BAD_REQUEST, "Validation failed");
     }
 
+    @ExceptionHandler({DownstreamUnavailableException.class, ResourceAccessException.class})
+    public ResponseEntity<ReportError> downstreamUnavailable(Exception ex) {
+        log.warn("Order service unavailable: {}", ex.getMessage());
+        return build(HttpStatus.SERVICE_UNAVAILABLE, "Order service unavailable");
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ReportError> generic(Exception ex) {
         log.warn("Unhandled exception: {}", ex.getMessage());
@@ -0,0 +1,35 @@
+package org.example.reportservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.example.reports.OrderReportFetch")
+@Label("Order Report Fetch")
+@Category({"ERP", "Reports"})
+@Description("One report request to OrderService, including decoding the response")
+@StackTrace(false)
+public class OrderReportFetchEvent extends Event {
+    @Label("Report")
+    public String report;
+
+    @Label("Year")
+    public int year;
+
+    @Label("Content Type")
+    public String contentType;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    public OrderReportFetchEvent(String report, int year) {
+        this.report = report;
+        this.year = year;
+    }
+}
@@ -1,5 +1,5 @@
 package org.example.authservice.model;
 
 public enum Roles {
-    USER,ADMIN
+    USER,ADMIN,PARTNER
 }
@@ -0,0 +1,19 @@
+-- Schema as it was managed before migrations were introduced. Existing databases are baselined at version 0
+-- and run this as a no-op.
+
+CREATE TABLE IF NOT EXISTS "user" (
+    id        bigint PRIMARY KEY,
+    email     varchar(255) NOT NULL UNIQUE,
+    full_name varchar(255),
+    password  varchar(255) NOT NULL,
+    role      varchar(255)
+);
+
+CREATE TABLE IF NOT EXISTS refresh_token (
+    id         bigint PRIMARY KEY,
+    token_hash varchar(255)                NOT NULL UNIQUE,
+    user_id    bigint                      NOT NULL REFERENCES "user" (id),
+    created_at timestamp(6) with time zone NOT NULL,
+    expires_at timestamp(6) with time zone NOT NULL,
+    revoked    boolean                     NOT NULL
+);
@@ -0,0 +1,50 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Takes the usual JMH command line and adds two defaults so every run can
+ * serve as a baseline: the GC profiler, for allocation per operation ({@code gc.alloc.rate.norm}), and JSON
+ * results written to a timestamped {@code jmh-result-*.json} in the working directory.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar                        # everything
+ * java -jar benchmarks/target/benchmarks.jar JwtValidatorBenchmark  # one suite
+ * java -jar benchmarks/target/benchmarks.jar -rf csv -rff base.csv  # explicit result file
+ * </pre>
+ */
+public final class BenchmarkRunner {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListWithParams()
+                || cmd.shouldListProfilers() || cmd.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+        boolean gcProfiled = cmd.getProfilers().stream()
+                .anyMatch(p -> p.getKlass().equals("gc") || p.getKlass().equals(GCProfiler.class.getName()));
+        if (!gcProfiled) {
+            options.addProfiler(GCProfiler.class);
+        }
+        ResultFormatType format = cmd.getResultFormat().orElse(ResultFormatType.JSON);
+        options.resultFormat(format);
+        if (!cmd.getResult().hasValue()) {
+            options.result("jmh-result-" + LocalDateTime.now().format(TIMESTAMP) + "." + format.name().toLowerCase(Locale.ROOT));
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.benchmarks.auth;
+
+import org.example.authservice.model.Roles;
+import org.example.authservice.model.User;
+import org.example.authservice.service.AuthService;
+import org.example.authservice.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token work done on every login and refresh: signing an access token and hashing a refresh token for storage.
+ * {@code AuthService.hashToken} is private and is called through a method handle, which adds a few nanoseconds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthTokenBenchmark {
+
+    private JwtService jwtService;
+    private MethodHandle hashToken;
+    private User user;
+    private String refreshToken;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        jwtService = new JwtService();
+        set(jwtService, "secret", "benchmark_secret_key_min_32_chars_1234567890");
+        set(jwtService, "accessTokenExpiration", 900_000L);
+        set(jwtService, "refreshTokenExpiration", 604_800_000L);
+        user = new User(42L, "jane.doe@example.org", "Jane Doe", "{noop}secret", Roles.ADMIN);
+        refreshToken = jwtService.generateRefreshToken(user);
+
+        AuthService authService = new AuthService(null, jwtService, null, null);
+        hashToken = MethodHandles.privateLookupIn(AuthService.class, MethodHandles.lookup())
+                .findVirtual(AuthService.class, "hashToken", MethodType.methodType(String.class, String.class))
+                .bindTo(authService);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String hashToken() throws Throwable {
+        return (String) hashToken.invokeExact(refreshToken);
+    }
+
+    private static void set(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.benchmarks.gateway;
+
+import com.example.apigateway.config.JwtProperties;
+import com.example.apigateway.security.JwtPrincipal;
+import com.example.apigateway.security.JwtValidator;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** The gateway's per-request token check, for a token shaped like the ones auth-service issues. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidatorBenchmark {
+    private static final String SECRET = "benchmark_secret_key_min_32_chars_1234567890";
+
+    private JwtValidator validator;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties props = new JwtProperties();
+        props.setSecret(SECRET);
+        props.setExpectedIssuer("erp-platform");
+        validator = new JwtValidator(props);
+        long now = System.currentTimeMillis();
+        token = Jwts.builder()
+                .setSubject("jane.doe@example.org")
+                .setIssuer("erp-platform")
+                .claim("userId", "42")
+                .claim("roles", List.of("ADMIN"))
+                .claim("role", "ADMIN")
+                .claim("type", "access")
+                .setIssuedAt(new Date(now))
+                // outlives any run
+                .setExpiration(new Date(now + TimeUnit.DAYS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    @Benchmark
+    public JwtPrincipal validate() {
+        return validator.validate(token);
+    }
+}
@@ -1,13 +1,11 @@
-package org.example.orderservice.config;
+package org.example.benchmarks.instrumentation;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
-import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
@@ -17,18 +15,15 @@ import java.util.Arrays;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+/**
+ * The per-service LoggingAspect as it was before the shared instrumentation module, kept as the baseline for
+ * {@link AdviceOverheadBenchmark}. Only the pointcut differs.
+ */
 @Aspect
-@Component
-public class LoggingAspect {
-    private static final Logger log = LoggerFactory.getLogger(LoggingAspect.class);
+public class LegacyLoggingAspect {
+    private static final Logger log = LoggerFactory.getLogger(LegacyLoggingAspect.class);
 
-    @Pointcut("within(org.example.orderservice.controller..*)")
-    public void controllerLayer() {}
-
-    @Pointcut("within(org.example.orderservice.service..*)")
-    public void serviceLayer() {}
-
-    @Around("controllerLayer() || serviceLayer()")
+    @Around("within(org.example.benchmarks.instrumentation.OrderFacade)")
     public Object logAround(ProceedingJoinPoint pjp) throws Throwable {
         long start = System.currentTimeMillis();
         String method = pjp.getSignature().toShortString();
@@ -63,4 +58,3 @@ public class LoggingAspect {
         return Arrays.stream(args).map(a -> a == null ? "null" : a.toString()).collect(Collectors.joining(", "));
     }
 }
-
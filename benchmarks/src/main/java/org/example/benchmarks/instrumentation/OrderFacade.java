@@ -0,0 +1,13 @@
+package org.example.benchmarks.instrumentation;
+
+import org.example.orderservice.dto.OrderRequest;
+import org.springframework.stereotype.Service;
+
+/** Stand-in for an advised service method; does next to nothing so the benchmark measures the advice. */
+@Service
+public class OrderFacade {
+
+    public int place(OrderRequest request) {
+        return request.getItems().size();
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.benchmarks.inventory;
+
+import org.example.inventoryservice.model.Product;
+import org.example.inventoryservice.repository.ProductRepository;
+import org.example.inventoryservice.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV product import with the database taken out: the repository is an in-memory stub that finds no duplicate
+ * SKUs and accepts every save, so what is measured is reading, splitting and parsing the file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductImportBenchmark {
+
+    @Param({"100", "10000"})
+    public int rows;
+
+    private ProductService productService;
+    private MultipartFile file;
+
+    @Setup
+    public void setUp() {
+        productService = new ProductService(stubRepository(), null);
+        StringBuilder csv = new StringBuilder("name,sku,price,stock\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("Product ").append(i).append(',')
+                    .append("SKU-").append(100_000 + i).append(',')
+                    .append(1 + i % 500).append('.').append(i % 100 < 10 ? "0" : "").append(i % 100).append(',')
+                    .append(i % 1000).append('\n');
+        }
+        file = new CsvFile(csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public int importProducts() {
+        return productService.importProducts(file);
+    }
+
+    private static ProductRepository stubRepository() {
+        return (ProductRepository) Proxy.newProxyInstance(ProductRepository.class.getClassLoader(),
+                new Class<?>[]{ProductRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findBySku" -> Optional.empty();
+                    case "save" -> (Product) args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private record CsvFile(byte[] content) implements MultipartFile {
+        @Override public String getName() { return "file"; }
+        @Override public String getOriginalFilename() { return "products.csv"; }
+        @Override public String getContentType() { return "text/csv"; }
+        @Override public boolean isEmpty() { return content.length == 0; }
+        @Override public long getSize() { return content.length; }
+        @Override public byte[] getBytes() { return content; }
+        @Override public InputStream getInputStream() { return new ByteArrayInputStream(content); }
+        @Override public void transferTo(File dest) { throw new UnsupportedOperationException(); }
+    }
+}
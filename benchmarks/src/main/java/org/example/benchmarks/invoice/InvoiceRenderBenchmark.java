@@ -0,0 +1,93 @@
+package org.example.benchmarks.invoice;
+
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.pdf.PdfStream;
+import org.example.orderservice.dto.OrderItemResponse;
+import org.example.orderservice.dto.OrderResponse;
+import org.example.orderservice.model.Money;
+import org.example.orderservice.model.OrderStatus;
+import org.example.orderservice.service.PDFService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invoices per second for the legacy renderer and the compiled template. Run with {@code -prof gc} to get the
+ * bytes allocated per invoice ({@code gc.alloc.rate.norm}):
+ * <pre>java -jar benchmarks/target/benchmarks.jar InvoiceRenderBenchmark -prof gc</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvoiceRenderBenchmark {
+
+    @Param({"5", "50"})
+    public int lineItems;
+
+    private OrderResponse order;
+    private PDFService compiled;
+    private PDFService compiledUncompressed;
+    private ByteArrayOutputStream out;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<OrderItemResponse> items = new ArrayList<>(lineItems);
+        Money total = Money.ZERO;
+        for (int i = 0; i < lineItems; i++) {
+            Money price = Money.ofMinor(1999 + i * 37L);
+            Money subtotal = price.times(i % 5 + 1);
+            items.add(new OrderItemResponse((long) i, 1000L + i, i % 5 + 1, price, subtotal));
+            total = total.plus(subtotal);
+        }
+        order = new OrderResponse(42L, "ORD-0A1B2C3D", LocalDateTime.of(2024, 3, 15, 10, 30),
+                total, "customer-42", OrderStatus.PENDING, items);
+        compiled = new PDFService(true, PdfStream.DEFAULT_COMPRESSION, "", "");
+        compiledUncompressed = new PDFService(false, 0, "", "");
+        out = new ByteArrayOutputStream(64 * 1024);
+        file = Files.createTempFile("invoice-benchmark-", ".pdf");
+    }
+
+    @Benchmark
+    public int legacy() throws DocumentException {
+        out.reset();
+        LegacyInvoiceRenderer.render(order, out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int compiled() {
+        out.reset();
+        compiled.render(order, out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int compiledUncompressed() {
+        out.reset();
+        compiledUncompressed.render(order, out);
+        return out.size();
+    }
+
+    /** {@code generateInvoicePdf} as the invoice endpoint calls it, including opening and writing the file. */
+    @Benchmark
+    public Path compiledToFile() {
+        compiled.generateInvoicePdf(order, file);
+        return file;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
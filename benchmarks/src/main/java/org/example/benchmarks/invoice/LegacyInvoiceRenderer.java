@@ -0,0 +1,85 @@
+package org.example.benchmarks.invoice;
+
+import com.itextpdf.text.*;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.example.orderservice.dto.OrderResponse;
+
+import java.io.OutputStream;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The invoice renderer as it was before the compiled template, kept as the baseline for
+ * {@link InvoiceRenderBenchmark}. Writes to a stream instead of a file so both sides measure rendering only.
+ */
+final class LegacyInvoiceRenderer {
+
+    private LegacyInvoiceRenderer() {
+    }
+
+    static void render(OrderResponse order, OutputStream out) throws DocumentException {
+        String orderNumber = order.getOrderNumber() == null ? String.valueOf(order.getId()) : order.getOrderNumber();
+
+        Document document = new Document();
+        PdfWriter.getInstance(document, out);
+        document.open();
+
+        Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, BaseColor.BLACK);
+        Paragraph title = new Paragraph("INVOICE", titleFont);
+        title.setAlignment(Element.ALIGN_CENTER);
+        document.add(title);
+
+        document.add(Chunk.NEWLINE);
+
+        Font detailsFont = FontFactory.getFont(FontFactory.HELVETICA, 12, BaseColor.BLACK);
+        document.add(new Paragraph("Invoice Number: " + orderNumber, detailsFont));
+        if (order.getOrderDate() != null) {
+            document.add(new Paragraph("Order Date: " +
+                    order.getOrderDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")), detailsFont));
+        }
+        document.add(new Paragraph("Customer ID: " + order.getCustomerId(), detailsFont));
+
+        document.add(Chunk.NEWLINE);
+
+        PdfPTable table = new PdfPTable(4);
+        table.setWidthPercentage(100);
+        table.setSpacingBefore(10f);
+        table.setSpacingAfter(10f);
+
+        Font tableHeaderFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.WHITE);
+        PdfPCell header1 = new PdfPCell(new Phrase("Product ID", tableHeaderFont));
+        PdfPCell header2 = new PdfPCell(new Phrase("Quantity", tableHeaderFont));
+        PdfPCell header3 = new PdfPCell(new Phrase("Unit Price", tableHeaderFont));
+        PdfPCell header4 = new PdfPCell(new Phrase("Line Total", tableHeaderFont));
+
+        header1.setBackgroundColor(BaseColor.DARK_GRAY);
+        header2.setBackgroundColor(BaseColor.DARK_GRAY);
+        header3.setBackgroundColor(BaseColor.DARK_GRAY);
+        header4.setBackgroundColor(BaseColor.DARK_GRAY);
+
+        table.addCell(header1);
+        table.addCell(header2);
+        table.addCell(header3);
+        table.addCell(header4);
+
+        Font tableFont = FontFactory.getFont(FontFactory.HELVETICA, 11, BaseColor.BLACK);
+        if (order.getItems() != null) {
+            order.getItems().forEach(item -> {
+                table.addCell(new Phrase(String.valueOf(item.getProductId()), tableFont));
+                table.addCell(new Phrase(String.valueOf(item.getQuantity()), tableFont));
+                table.addCell(new Phrase("$" + item.getPrice(), tableFont));
+                table.addCell(new Phrase("$" + item.getSubtotal(), tableFont));
+            });
+        }
+
+        document.add(table);
+
+        Font totalFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14, BaseColor.BLACK);
+        Paragraph total = new Paragraph("Total Amount: $" + order.getTotalAmount(), totalFont);
+        total.setAlignment(Element.ALIGN_RIGHT);
+        document.add(total);
+
+        document.close();
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.benchmarks.money;
+
+import org.example.orderservice.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code Order} and {@code OrderItem} as they were before {@code Money}, kept as the baseline for
+ * {@link OrderMoneyBenchmark}: {@code BigDecimal} amounts, a subtotal recomputed in every item setter and the
+ * total recomputed over all items on every {@link #addItem}.
+ */
+final class LegacyOrder {
+    Long id;
+    String orderNumber;
+    LocalDateTime orderDate = LocalDateTime.now();
+    BigDecimal totalAmount = BigDecimal.ZERO;
+    String customerId;
+    OrderStatus status = OrderStatus.PENDING;
+    final List<Item> items = new ArrayList<>();
+
+    void addItem(Item item) {
+        items.add(item);
+        item.order = this;
+        calculateTotal();
+    }
+
+    private void calculateTotal() {
+        this.totalAmount = items.stream()
+                .map(i -> i.subtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    Response toResponse() {
+        return new Response(id, orderNumber, orderDate, totalAmount, customerId, status,
+                items.stream().map(i -> new ItemResponse(i.id, i.productId, i.quantity, i.price, i.subtotal)).toList());
+    }
+
+    static final class Item {
+        Long id;
+        Long productId;
+        Integer quantity;
+        BigDecimal price;
+        BigDecimal subtotal;
+        LegacyOrder order;
+
+        Item(Long productId, Integer quantity, BigDecimal price) {
+            this.productId = productId;
+            this.quantity = quantity;
+            this.price = price;
+            this.subtotal = price.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+
+    record Response(Long id, String orderNumber, LocalDateTime orderDate, BigDecimal totalAmount, String customerId,
+                    OrderStatus status, List<ItemResponse> items) {
+    }
+
+    record ItemResponse(Long id, Long productId, Integer quantity, BigDecimal price, BigDecimal subtotal) {
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.benchmarks.money;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.example.orderservice.dto.OrderItemResponse;
+import org.example.orderservice.dto.OrderResponse;
+import org.example.orderservice.model.Money;
+import org.example.orderservice.model.Order;
+import org.example.orderservice.model.OrderItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building an order line by line and of building and serializing it to JSON, for the legacy
+ * {@code BigDecimal} entity and for {@link Money} with incremental totals. Run with {@code -prof gc} for the bytes
+ * allocated per order:
+ * <pre>java -jar benchmarks/target/benchmarks.jar OrderMoneyBenchmark -prof gc</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMoneyBenchmark {
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    public int lines;
+
+    private final ObjectMapper mapper = JsonMapper.builder().findAndAddModules().build();
+    private BigDecimal[] decimalPrices;
+    private Money[] prices;
+
+    @Setup
+    public void setUp() {
+        decimalPrices = new BigDecimal[lines];
+        prices = new Money[lines];
+        for (int i = 0; i < lines; i++) {
+            long cents = 199 + (i * 7919L) % 100_000;
+            decimalPrices[i] = BigDecimal.valueOf(cents, 2);
+            prices[i] = Money.ofMinor(cents);
+        }
+    }
+
+    @Benchmark
+    public LegacyOrder legacyBuild() {
+        LegacyOrder order = new LegacyOrder();
+        for (int i = 0; i < lines; i++) {
+            order.addItem(new LegacyOrder.Item((long) i, i % 5 + 1, decimalPrices[i]));
+        }
+        return order;
+    }
+
+    @Benchmark
+    public Order build() {
+        Order order = new Order();
+        for (int i = 0; i < lines; i++) {
+            order.addItem(new OrderItem((long) i, i % 5 + 1, prices[i]));
+        }
+        return order;
+    }
+
+    @Benchmark
+    public byte[] legacyBuildAndSerialize() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(legacyBuild().toResponse());
+    }
+
+    @Benchmark
+    public byte[] buildAndSerialize() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(toResponse(build()));
+    }
+
+    // same mapping as OrderService.convertToResponse
+    private static OrderResponse toResponse(Order order) {
+        return new OrderResponse(order.getId(), order.getOrderNumber(), order.getOrderDate(), order.getTotalAmount(),
+                order.getCustomerId(), order.getStatus(), order.getItems().stream()
+                .map(item -> new OrderItemResponse(item.getId(), item.getProductId(), item.getQuantity(),
+                        item.getPrice(), item.getSubtotal()))
+                .toList());
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.benchmarks.order;
+
+import org.example.orderservice.dto.OrderResponse;
+import org.example.orderservice.model.Money;
+import org.example.orderservice.model.Order;
+import org.example.orderservice.model.OrderItem;
+import org.example.orderservice.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping done for every order returned by OrderService. {@code convertToResponse} is private
+ * and is called through a method handle. Building the order with {@code Order.addItem} is measured by
+ * {@link org.example.benchmarks.money.OrderMoneyBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConvertToResponseBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int lines;
+
+    private MethodHandle convertToResponse;
+    private Order order;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        OrderService orderService = new OrderService(null, null, null, null, null, null, null, null);
+        convertToResponse = MethodHandles.privateLookupIn(OrderService.class, MethodHandles.lookup())
+                .findVirtual(OrderService.class, "convertToResponse", MethodType.methodType(OrderResponse.class, Order.class))
+                .bindTo(orderService);
+        order = new Order();
+        order.setId(42L);
+        order.setOrderNumber("ORD-0A1B2C3D");
+        order.setCustomerId("customer-42");
+        for (int i = 0; i < lines; i++) {
+            OrderItem item = new OrderItem(1000L + i, i % 5 + 1, Money.ofMinor(1999 + i * 37L));
+            item.setId((long) i);
+            order.addItem(item);
+        }
+    }
+
+    @Benchmark
+    public OrderResponse convertToResponse() throws Throwable {
+        return (OrderResponse) convertToResponse.invokeExact(order);
+    }
+}
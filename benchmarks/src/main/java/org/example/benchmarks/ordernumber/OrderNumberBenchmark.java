@@ -0,0 +1,50 @@
+package org.example.benchmarks.ordernumber;
+
+import org.example.orderservice.service.SnowflakeOrderNumberGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order number generation throughput, single threaded and with eight threads contending for the generator,
+ * against the previous random UUID prefix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderNumberBenchmark {
+
+    private final SnowflakeOrderNumberGenerator snowflake = new SnowflakeOrderNumberGenerator(1);
+
+    @Benchmark
+    @Threads(1)
+    public String snowflake() {
+        return snowflake.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String snowflakeContended() {
+        return snowflake.next();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String uuidPrefix() {
+        return legacy();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String uuidPrefixContended() {
+        return legacy();
+    }
+
+    private static String legacy() {
+        return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.benchmarks.report;
+
+import org.example.reportservice.client.OrderReportClient;
+import org.example.reportservice.controller.ReportController;
+import org.example.reportservice.dto.MonthlySalesDTO;
+import org.example.reportservice.dto.TopProductDTO;
+import org.example.reportservice.util.CsvUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report serialization in ReportService: CSV through {@link CsvUtil} and XLSX workbooks through
+ * {@link ReportController}, which is given a client returning fixed rows so no HTTP call is made.
+ * {@code rows} is the number of top products; monthly sales always have twelve rows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ReportExportBenchmark {
+
+    @Param({"10", "100"})
+    public int rows;
+
+    private List<MonthlySalesDTO> monthlySales;
+    private List<TopProductDTO> topProducts;
+    private ReportController controller;
+
+    @Setup
+    public void setUp() {
+        monthlySales = new ArrayList<>(12);
+        for (int month = 1; month <= 12; month++) {
+            BigDecimal total = BigDecimal.valueOf(1_250_000L + month * 73_919L, 2);
+            long orders = 400L + month * 17;
+            monthlySales.add(new MonthlySalesDTO(2024, month, total, orders,
+                    total.divide(BigDecimal.valueOf(orders), 2, RoundingMode.HALF_UP)));
+        }
+        topProducts = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            topProducts.add(new TopProductDTO(1000L + i, 5_000L - i * 7L, BigDecimal.valueOf(9_999_900L - i * 1_337L, 2)));
+        }
+        controller = new ReportController(new FixedReportClient(monthlySales, topProducts));
+    }
+
+    @Benchmark
+    public String monthlySalesCsv() {
+        return CsvUtil.monthlySalesToCsv(monthlySales);
+    }
+
+    @Benchmark
+    public String topProductsCsv() {
+        return CsvUtil.topProductsToCsv(topProducts);
+    }
+
+    @Benchmark
+    public byte[] monthlySalesWorkbook() {
+        return controller.monthlySalesExcel(2024).getBody();
+    }
+
+    @Benchmark
+    public byte[] topProductsWorkbook() {
+        return controller.topProductsExcel(2024, rows).getBody();
+    }
+
+    private static final class FixedReportClient extends OrderReportClient {
+        private final List<MonthlySalesDTO> monthlySales;
+        private final List<TopProductDTO> topProducts;
+
+        FixedReportClient(List<MonthlySalesDTO> monthlySales, List<TopProductDTO> topProducts) {
+            super(null, "http://unused");
+            this.monthlySales = monthlySales;
+            this.topProducts = topProducts;
+        }
+
+        @Override
+        public List<MonthlySalesDTO> fetchMonthlySales(int year) {
+            return monthlySales;
+        }
+
+        @Override
+        public List<TopProductDTO> fetchTopProducts(int year, int limit) {
+            return topProducts;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.downstream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+@AutoConfiguration(afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@EnableConfigurationProperties(DownstreamProperties.class)
+public class DownstreamClientAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DownstreamClients downstreamClients(DownstreamProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new DownstreamClients(properties, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.downstream;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out one {@link RestTemplate} per named downstream destination. Each destination gets its own connection
+ * pool, timeouts, bulkhead and circuit breaker so a slow dependency cannot exhaust capacity meant for another.
+ */
+public class DownstreamClients implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(DownstreamClients.class);
+
+    private final DownstreamProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final BulkheadRegistry bulkheads = BulkheadRegistry.ofDefaults();
+    private final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.ofDefaults();
+    private final Map<String, RestTemplate> templates = new ConcurrentHashMap<>();
+    private final Map<String, CloseableHttpClient> httpClients = new ConcurrentHashMap<>();
+
+    public DownstreamClients(DownstreamProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+    }
+
+    public RestTemplate restTemplate(String destination) {
+        return templates.computeIfAbsent(destination, this::create);
+    }
+
+    private RestTemplate create(String destination) {
+        DownstreamProperties.Destination cfg = properties.forDestination(destination);
+
+        PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(cfg.getMaxConnections())
+                .setMaxConnPerRoute(cfg.getMaxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(cfg.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(cfg.getReadTimeout()))
+                        .setTimeToLive(TimeValue.of(cfg.getConnectionTimeToLive()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(pool, destination).bindTo(meterRegistry);
+
+        TimeValue keepAlive = TimeValue.of(cfg.getKeepAlive());
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(pool)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(cfg.getPoolAcquireTimeout()))
+                        .setResponseTimeout(Timeout.of(cfg.getReadTimeout()))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> keepAlive)
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive)
+                .build();
+        httpClients.put(destination, httpClient);
+
+        Bulkhead bulkhead = bulkheads.bulkhead(destination, BulkheadConfig.custom()
+                .maxConcurrentCalls(cfg.getBulkhead().getMaxConcurrentCalls())
+                .maxWaitDuration(cfg.getBulkhead().getMaxWait())
+                .build());
+        DownstreamProperties.CircuitBreaker cb = cfg.getCircuitBreaker();
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(destination, CircuitBreakerConfig.custom()
+                .failureRateThreshold(cb.getFailureRateThreshold())
+                .slowCallRateThreshold(cb.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(cb.getSlowCallDuration())
+                .slidingWindowSize(cb.getSlidingWindowSize())
+                .minimumNumberOfCalls(cb.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(cb.getWaitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(cb.getPermittedCallsInHalfOpenState())
+                .build());
+
+        RestTemplate template = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        template.getInterceptors().add(new ResilienceInterceptor(destination, bulkhead, circuitBreaker, meterRegistry));
+        log.info("Downstream client {} created maxConnections={} connectTimeout={} readTimeout={} maxConcurrentCalls={}",
+                destination, cfg.getMaxConnections(), cfg.getConnectTimeout(), cfg.getReadTimeout(),
+                cfg.getBulkhead().getMaxConcurrentCalls());
+        return template;
+    }
+
+    @Override
+    public void destroy() {
+        httpClients.forEach((destination, client) -> {
+            try {
+                client.close();
+            } catch (IOException e) {
+                log.warn("Failed to close downstream client {}: {}", destination, e.getMessage());
+            }
+        });
+    }
+}
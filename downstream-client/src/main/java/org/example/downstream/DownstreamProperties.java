@@ -0,0 +1,52 @@
+package org.example.downstream;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-destination settings for {@link DownstreamClients}, bound from {@code downstream.clients.<name>.*}.
+ * Destinations without an entry use the defaults below.
+ */
+@ConfigurationProperties(prefix = "downstream")
+@Data
+public class DownstreamProperties {
+    private Map<String, Destination> clients = new LinkedHashMap<>();
+
+    public Destination forDestination(String name) {
+        return clients.getOrDefault(name, new Destination());
+    }
+
+    @Data
+    public static class Destination {
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(5);
+        /** How long a caller may wait to lease a pooled connection. */
+        private Duration poolAcquireTimeout = Duration.ofSeconds(1);
+        private int maxConnections = 50;
+        private Duration keepAlive = Duration.ofSeconds(30);
+        private Duration connectionTimeToLive = Duration.ofMinutes(5);
+        private Bulkhead bulkhead = new Bulkhead();
+        private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    }
+
+    @Data
+    public static class Bulkhead {
+        private int maxConcurrentCalls = 50;
+        private Duration maxWait = Duration.ofMillis(100);
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 100;
+        private Duration slowCallDuration = Duration.ofSeconds(3);
+        private int slidingWindowSize = 50;
+        private int minimumNumberOfCalls = 20;
+        private Duration waitInOpenState = Duration.ofSeconds(10);
+        private int permittedCallsInHalfOpenState = 5;
+    }
+}
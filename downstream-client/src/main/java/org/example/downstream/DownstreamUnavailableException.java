@@ -0,0 +1,20 @@
+package org.example.downstream;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Raised when a call is rejected locally because the destination's bulkhead is saturated or its circuit is open.
+ * No request was sent in that case.
+ */
+public class DownstreamUnavailableException extends RestClientException {
+    private final String destination;
+
+    public DownstreamUnavailableException(String destination, String message, Throwable cause) {
+        super(message, cause);
+        this.destination = destination;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.downstream;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guards every call of one destination with a bulkhead and a circuit breaker and records how long callers waited
+ * for a permit and how long the exchange took. 5xx responses and I/O errors count as circuit breaker failures.
+ */
+class ResilienceInterceptor implements ClientHttpRequestInterceptor {
+    private final String destination;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final Timer permitWait;
+    // method -> status -> timer; registered on first use, then looked up without touching the registry
+    private final ConcurrentMap<String, ConcurrentMap<String, Timer>> requestTimers = new ConcurrentHashMap<>();
+
+    ResilienceInterceptor(String destination, Bulkhead bulkhead, CircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        this.destination = destination;
+        this.bulkhead = bulkhead;
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+        this.permitWait = Timer.builder("downstream.client.permit.wait")
+                .description("Time spent waiting for a bulkhead permit")
+                .tag("client", destination)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        long waitStart = System.nanoTime();
+        try {
+            bulkhead.acquirePermission();
+        } catch (BulkheadFullException e) {
+            record(request, "REJECTED", 0);
+            throw new DownstreamUnavailableException(destination, "Too many concurrent calls to " + destination, e);
+        } finally {
+            permitWait.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+        }
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                record(request, "SHORT_CIRCUITED", 0);
+                throw new DownstreamUnavailableException(destination, "Circuit open for " + destination,
+                        CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+            }
+            long start = System.nanoTime();
+            ClientHttpResponse response;
+            try {
+                response = execution.execute(request, body);
+            } catch (IOException | RuntimeException e) {
+                long took = System.nanoTime() - start;
+                circuitBreaker.onError(took, TimeUnit.NANOSECONDS, e);
+                record(request, "IO_ERROR", took);
+                throw e;
+            }
+            long took = System.nanoTime() - start;
+            int status = response.getStatusCode().value();
+            if (status >= 500) {
+                circuitBreaker.onError(took, TimeUnit.NANOSECONDS, new IOException("HTTP " + status));
+            } else {
+                circuitBreaker.onSuccess(took, TimeUnit.NANOSECONDS);
+            }
+            record(request, String.valueOf(status), took);
+            return response;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    private void record(HttpRequest request, String status, long nanos) {
+        String method = request.getMethod().name();
+        ConcurrentMap<String, Timer> byStatus = requestTimers.get(method);
+        if (byStatus == null) {
+            byStatus = requestTimers.computeIfAbsent(method, m -> new ConcurrentHashMap<>());
+        }
+        Timer timer = byStatus.get(status);
+        if (timer == null) {
+            timer = byStatus.computeIfAbsent(status, s -> Timer.builder("downstream.client.requests")
+                    .description("Latency of downstream HTTP calls")
+                    .tag("client", destination)
+                    .tag("method", method)
+                    .tag("status", s)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
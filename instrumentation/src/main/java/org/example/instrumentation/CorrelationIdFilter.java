@@ -0,0 +1,45 @@
+package org.example.instrumentation;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Puts the request's correlation id in the MDC once for the whole request and echoes it in the response. The id is
+ * taken from the incoming header or generated; generated ids come from {@link ThreadLocalRandom} rather than
+ * {@link UUID#randomUUID()}, which draws on the shared SecureRandom.
+ */
+public class CorrelationIdFilter extends OncePerRequestFilter {
+    public static final String MDC_KEY = "correlationId";
+    private static final int MAX_LENGTH = 128;
+
+    private final String header;
+
+    public CorrelationIdFilter(String header) {
+        this.header = header;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String correlationId = request.getHeader(header);
+        if (correlationId == null || correlationId.isBlank() || correlationId.length() > MAX_LENGTH) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            correlationId = new UUID(random.nextLong(), random.nextLong()).toString();
+        }
+        MDC.put(MDC_KEY, correlationId);
+        response.setHeader(header, correlationId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+}
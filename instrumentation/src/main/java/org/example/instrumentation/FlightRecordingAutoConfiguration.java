@@ -0,0 +1,23 @@
+package org.example.instrumentation;
+
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/** Registers {@link FlightRecordingEndpoint} in services that have actuator and expose the endpoint. */
+@AutoConfiguration
+@ConditionalOnClass(Endpoint.class)
+@EnableConfigurationProperties(InstrumentationProperties.class)
+public class FlightRecordingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnAvailableEndpoint
+    public FlightRecordingEndpoint flightRecordingEndpoint(InstrumentationProperties properties) {
+        return new FlightRecordingEndpoint(properties.getFlightRecording());
+    }
+}
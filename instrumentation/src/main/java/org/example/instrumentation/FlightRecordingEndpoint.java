@@ -0,0 +1,186 @@
+package org.example.instrumentation;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * On-demand Java Flight Recorder recordings, exposed at {@code /actuator/flightrecording}.
+ * <ul>
+ *     <li>{@code POST /} starts a recording with the JDK's {@code default} or {@code profile} settings</li>
+ *     <li>{@code POST /{id}} stops it early</li>
+ *     <li>{@code GET /} lists the recordings and {@code GET /{id}} downloads a finished one as a {@code .jfr} file</li>
+ *     <li>{@code DELETE /{id}} discards a recording together with its file</li>
+ * </ul>
+ * Recordings are bounded: one runs at a time, each stops on its own after at most
+ * {@code instrumentation.flight-recording.max-duration} and is capped at {@code max-size} on disk, and only the
+ * last {@code retained} finished recordings are kept. With the {@code default} settings the overhead stays around
+ * one percent, so this is meant to be used against production instances.
+ */
+@WebEndpoint(id = "flightrecording")
+public class FlightRecordingEndpoint implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(FlightRecordingEndpoint.class);
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+    private static final int STATUS_CONFLICT = 409;
+
+    private final InstrumentationProperties.FlightRecording properties;
+    private final Path directory;
+    // oldest first; guarded by this
+    private final Deque<Recording> recordings = new ArrayDeque<>();
+
+    public FlightRecordingEndpoint(InstrumentationProperties.FlightRecording properties) {
+        this.properties = properties;
+        this.directory = Path.of(properties.getDirectory() != null
+                ? properties.getDirectory()
+                : System.getProperty("java.io.tmpdir"));
+    }
+
+    @ReadOperation
+    public synchronized List<RecordingDescriptor> recordings() {
+        return recordings.stream().map(RecordingDescriptor::of).toList();
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<RecordingDescriptor> start(@Nullable Duration duration, @Nullable String settings) {
+        String settingsName = settings == null ? "default" : settings;
+        if (!SETTINGS.contains(settingsName)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        if (recordings.stream().anyMatch(r -> r.getState() == RecordingState.RUNNING)) {
+            return new WebEndpointResponse<>(STATUS_CONFLICT);
+        }
+        Duration requested = duration == null || duration.isNegative() || duration.isZero()
+                ? properties.getDefaultDuration()
+                : duration;
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration(settingsName));
+            recording.setName("flightrecording-" + ProcessHandle.current().pid() + "-" + recording.getId());
+            recording.setToDisk(true);
+            recording.setDuration(requested.compareTo(properties.getMaxDuration()) > 0 ? properties.getMaxDuration() : requested);
+            recording.setMaxSize(properties.getMaxSize().toBytes());
+            recording.setDestination(directory.resolve(recording.getName() + ".jfr"));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Failed to set up flight recording", e);
+        }
+        evictFinished(properties.getRetained() - 1);
+        recording.start();
+        recordings.addLast(recording);
+        log.info("Flight recording started id={} settings={} duration={}", recording.getId(), settingsName, recording.getDuration());
+        return new WebEndpointResponse<>(RecordingDescriptor.of(recording));
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<RecordingDescriptor> stop(@Selector long id) {
+        Recording recording = find(id);
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            // writes the destination file
+            recording.stop();
+            log.info("Flight recording stopped id={}", id);
+        }
+        return new WebEndpointResponse<>(RecordingDescriptor.of(recording));
+    }
+
+    @ReadOperation
+    public synchronized WebEndpointResponse<Resource> download(@Selector long id) {
+        Recording recording = find(id);
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path file = recording.getDestination();
+        // a recording that ran to its duration is closed rather than stopped; either way the file is complete
+        if (recording.getState() != RecordingState.STOPPED && recording.getState() != RecordingState.CLOSED
+                || file == null || !Files.exists(file)) {
+            return new WebEndpointResponse<>(STATUS_CONFLICT);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(file));
+    }
+
+    @DeleteOperation
+    public synchronized WebEndpointResponse<Void> discard(@Selector long id) {
+        Recording recording = find(id);
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        recordings.remove(recording);
+        close(recording);
+        return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        recordings.forEach(Recording::close);
+        recordings.clear();
+    }
+
+    private Recording find(long id) {
+        for (Recording recording : recordings) {
+            if (recording.getId() == id) {
+                return recording;
+            }
+        }
+        return null;
+    }
+
+    private void evictFinished(int keep) {
+        while (recordings.size() > Math.max(keep, 0)) {
+            close(recordings.removeFirst());
+        }
+    }
+
+    private void close(Recording recording) {
+        Path file = recording.getDestination();
+        recording.close();
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete flight recording file={} error={}", file, e.getMessage());
+            }
+        }
+    }
+
+    public record RecordingDescriptor(long id, String name, String state, Instant startTime, Instant stopTime,
+                                      Duration duration, Long size) {
+
+        static RecordingDescriptor of(Recording recording) {
+            Path file = recording.getDestination();
+            Long size = null;
+            try {
+                if (file != null && Files.exists(file)) {
+                    size = Files.size(file);
+                }
+            } catch (IOException ignored) {
+                // reported without a size
+            }
+            return new RecordingDescriptor(recording.getId(), recording.getName(), recording.getState().name(),
+                    recording.getStartTime(), recording.getStopTime(), recording.getDuration(), size);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@AutoConfiguration(afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@EnableConfigurationProperties(InstrumentationProperties.class)
+public class InstrumentationAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MethodMetricsAspect methodMetricsAspect(ObjectProvider<MeterRegistry> meterRegistry, InstrumentationProperties properties) {
+        return new MethodMetricsAspect(meterRegistry.getIfAvailable(SimpleMeterRegistry::new), properties);
+    }
+
+    // nested so reactive applications, which lack the servlet API, never load the filter types
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class CorrelationConfiguration {
+
+        @Bean
+        public FilterRegistrationBean<CorrelationIdFilter> correlationIdFilter(InstrumentationProperties properties) {
+            FilterRegistrationBean<CorrelationIdFilter> registration =
+                    new FilterRegistrationBean<>(new CorrelationIdFilter(properties.getCorrelationHeader()));
+            // ahead of security so everything logged for the request carries the id
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.instrumentation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@link MethodMetricsAspect}, {@link CorrelationIdFilter} and {@link FlightRecordingEndpoint}, bound
+ * from {@code instrumentation.*}.
+ */
+@ConfigurationProperties(prefix = "instrumentation")
+@Data
+public class InstrumentationProperties {
+    /** Publish a percentile histogram per method so latency percentiles can be aggregated across instances. */
+    private boolean percentileHistogram = true;
+    /** Calls slower than this are logged at WARN with their arguments. */
+    private Duration slowCallThreshold = Duration.ofSeconds(1);
+    /** Fraction of calls logged at DEBUG with their arguments when DEBUG is on for the aspect. */
+    private double argumentSampleRate = 0.01;
+    /** Longer argument strings are cut off in the log. */
+    private int maxArgumentLength = 256;
+    private String correlationHeader = "X-Correlation-Id";
+    private final FlightRecording flightRecording = new FlightRecording();
+
+    @Data
+    public static class FlightRecording {
+        /** Used when a recording is started without a duration. */
+        private Duration defaultDuration = Duration.ofMinutes(1);
+        /** Longer requested durations are cut down to this. */
+        private Duration maxDuration = Duration.ofMinutes(10);
+        /** Upper bound for the size of one recording on disk. */
+        private DataSize maxSize = DataSize.ofMegabytes(256);
+        /** Finished recordings kept for download; older ones are deleted when a new recording starts. */
+        private int retained = 3;
+        /** Where recordings are written; defaults to the JVM temp directory. */
+        private String directory;
+    }
+}
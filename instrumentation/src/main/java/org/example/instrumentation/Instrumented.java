@@ -0,0 +1,17 @@
+package org.example.instrumentation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Opts a bean or a single method into {@link MethodMetricsAspect}. Controllers and {@code @Service} beans are
+ * covered already; use this for other components worth timing, such as clients of other services.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Instrumented {
+}
@@ -0,0 +1,134 @@
+package org.example.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Times every controller, {@code @Service} and {@link Instrumented} method in {@code org.example} with a
+ * Micrometer timer tagged by class, method, outcome and exception type. Timers are looked up once per method and
+ * cached, so a call costs two clock reads and one record. Arguments are only formatted when a call is slow, or for
+ * a sampled share of calls while DEBUG is enabled, and passwords are masked when they are.
+ */
+@Aspect
+public class MethodMetricsAspect {
+    public static final String METRIC_NAME = "app.method";
+    private static final Logger log = LoggerFactory.getLogger(MethodMetricsAspect.class);
+    private static final Pattern PASSWORD = Pattern.compile("(?i)(password=)[^,)}\\]]+");
+
+    private final MeterRegistry registry;
+    private final InstrumentationProperties props;
+    private final long slowCallNanos;
+    private final ConcurrentMap<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    public MethodMetricsAspect(MeterRegistry registry, InstrumentationProperties props) {
+        this.registry = registry;
+        this.props = props;
+        this.slowCallNanos = props.getSlowCallThreshold().toNanos();
+    }
+
+    // annotation type patterns rather than @within/@annotation: these match statically when the proxy is built,
+    // the latter leave a runtime test on every call
+    @Around("within(@org.springframework.web.bind.annotation.RestController org.example..*)"
+            + " || within(@org.springframework.stereotype.Service org.example..*)"
+            + " || within(@org.example.instrumentation.Instrumented org.example..*)"
+            + " || execution(@org.example.instrumentation.Instrumented * org.example..*.*(..))")
+    public Object time(ProceedingJoinPoint pjp) throws Throwable {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        MethodTimers methodTimers = timers.computeIfAbsent(method, this::register);
+        long start = System.nanoTime();
+        try {
+            Object result = pjp.proceed();
+            long took = System.nanoTime() - start;
+            methodTimers.success.record(took, TimeUnit.NANOSECONDS);
+            logCall(methodTimers, pjp, took, null);
+            return result;
+        } catch (Throwable ex) {
+            long took = System.nanoTime() - start;
+            methodTimers.error(ex.getClass()).record(took, TimeUnit.NANOSECONDS);
+            logCall(methodTimers, pjp, took, ex);
+            throw ex;
+        }
+    }
+
+    private void logCall(MethodTimers methodTimers, ProceedingJoinPoint pjp, long tookNanos, Throwable ex) {
+        if (tookNanos >= slowCallNanos) {
+            log.atWarn()
+                    .setMessage("Slow call {} took={}ms ex={} args=[{}]")
+                    .addArgument(methodTimers.name)
+                    .addArgument(() -> TimeUnit.NANOSECONDS.toMillis(tookNanos))
+                    .addArgument(() -> ex == null ? "none" : ex.getClass().getSimpleName())
+                    .addArgument(() -> formatArgs(pjp.getArgs()))
+                    .log();
+        } else if (log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < props.getArgumentSampleRate()) {
+            log.atDebug()
+                    .setMessage("Call {} took={}us ex={} args=[{}]")
+                    .addArgument(methodTimers.name)
+                    .addArgument(() -> TimeUnit.NANOSECONDS.toMicros(tookNanos))
+                    .addArgument(() -> ex == null ? "none" : ex.getClass().getSimpleName())
+                    .addArgument(() -> formatArgs(pjp.getArgs()))
+                    .log();
+        }
+    }
+
+    private String formatArgs(Object[] args) {
+        if (args == null || args.length == 0) return "";
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) sb.append(", ");
+            String s = String.valueOf(args[i]);
+            if (s.length() > props.getMaxArgumentLength()) {
+                s = s.substring(0, props.getMaxArgumentLength()) + "...";
+            }
+            sb.append(PASSWORD.matcher(s).replaceAll("$1***"));
+        }
+        return sb.toString();
+    }
+
+    private MethodTimers register(Method method) {
+        return new MethodTimers(method.getDeclaringClass().getSimpleName(), method.getName());
+    }
+
+    /** Timers for one method: success is created up front, error timers on the first failure of each type. */
+    private final class MethodTimers {
+        private final String className;
+        private final String methodName;
+        private final String name;
+        private final Timer success;
+        private final ConcurrentMap<Class<?>, Timer> errors = new ConcurrentHashMap<>();
+
+        MethodTimers(String className, String methodName) {
+            this.className = className;
+            this.methodName = methodName;
+            this.name = className + "." + methodName;
+            this.success = timer("success", "none");
+        }
+
+        Timer error(Class<?> exceptionType) {
+            return errors.computeIfAbsent(exceptionType, type -> timer("error", type.getSimpleName()));
+        }
+
+        private Timer timer(String outcome, String exception) {
+            return Timer.builder(METRIC_NAME)
+                    .description("Time spent in controller and service methods")
+                    .tag("class", className)
+                    .tag("method", methodName)
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram(props.isPercentileHistogram())
+                    .register(registry);
+        }
+    }
+}